@@ -0,0 +1,57 @@
+package com.my.rental.adaptor;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.my.rental.domain.OutboxEvent;
+import com.my.rental.repository.OutboxEventRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The events written by {@link RentalProducerImpl} for a rent: creating the event, serializing it to JSON
+ * and creating its {@link OutboxEvent}. The outbox repository is a stub that only keeps the last event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RentalEventSerializationBenchmark {
+
+    private RentalProducerImpl rentalProducer;
+    private OutboxEvent lastEvent;
+
+    @Setup
+    public void setUp() {
+        OutboxEventRepository outboxEventRepository = (OutboxEventRepository) Proxy.newProxyInstance(
+            OutboxEventRepository.class.getClassLoader(), new Class<?>[]{OutboxEventRepository.class},
+            (proxy, method, args) -> {
+                if (!"save".equals(method.getName())) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                lastEvent = (OutboxEvent) args[0];
+                return lastEvent;
+            });
+        rentalProducer = new RentalProducerImpl(outboxEventRepository);
+    }
+
+    @Benchmark
+    public OutboxEvent updateBookStatus() throws JsonProcessingException {
+        rentalProducer.updateBookStatus(1000L, "UNAVAILABLE");
+        return lastEvent;
+    }
+
+    @Benchmark
+    public OutboxEvent updateBookCatalogStatus() throws JsonProcessingException {
+        rentalProducer.updateBookCatalogStatus(1000L, "RENT_BOOK");
+        return lastEvent;
+    }
+
+    @Benchmark
+    public OutboxEvent savePoints() throws JsonProcessingException {
+        rentalProducer.savePoints(1L, 30);
+        return lastEvent;
+    }
+}
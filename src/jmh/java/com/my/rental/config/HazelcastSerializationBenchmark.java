@@ -0,0 +1,135 @@
+package com.my.rental.config;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import com.my.rental.adaptor.BookInfoCache;
+import com.my.rental.web.rest.dto.BookInfoDTO;
+import org.hibernate.cache.spi.entry.CollectionCacheEntry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of the values this service stores in Hazelcast.
+ * <p>
+ * The {@code java*} benchmarks use a serialization service without configuration, i.e. Java serialization,
+ * and a copy of the former {@code Serializable} book info entry; the {@code binary*} ones use the
+ * configuration of {@link CacheConfiguration}. The serialized sizes are printed during the setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HazelcastSerializationBenchmark {
+
+    @Param({"10", "100"})
+    private int itemCount;
+
+    private InternalSerializationService javaSerialization;
+    private InternalSerializationService binarySerialization;
+
+    private JavaBookInfo javaBookInfo;
+    private BookInfoCache.CachedBookInfo binaryBookInfo;
+    private CollectionCacheEntry collectionEntry;
+
+    private Data javaBookInfoData;
+    private Data binaryBookInfoData;
+    private Data javaCollectionData;
+    private Data binaryCollectionData;
+
+    @Setup
+    public void setUp() {
+        javaSerialization = new DefaultSerializationServiceBuilder().build();
+        binarySerialization = new DefaultSerializationServiceBuilder()
+            .setConfig(CacheConfiguration.initializeSerializationConfig()).build();
+
+        BookInfoDTO bookInfo = new BookInfoDTO();
+        bookInfo.setId(1234L);
+        bookInfo.setTitle("The Art of Computer Programming");
+        long now = System.currentTimeMillis();
+        javaBookInfo = new JavaBookInfo(bookInfo, now);
+        binaryBookInfo = new BookInfoCache.CachedBookInfo(bookInfo, now);
+
+        // bookId 를 키로 하는 대출 아이템 맵의 캐시 상태: bookId, 아이템 id 가 번갈아 온다
+        Serializable[] state = new Serializable[itemCount * 2];
+        for (int i = 0; i < itemCount; i++) {
+            state[2 * i] = 1000L + i;
+            state[2 * i + 1] = 50000L + i;
+        }
+        collectionEntry = CollectionCacheEntrySerializer.create(state);
+
+        javaBookInfoData = javaSerialization.toData(javaBookInfo);
+        binaryBookInfoData = binarySerialization.toData(binaryBookInfo);
+        javaCollectionData = javaSerialization.toData(collectionEntry);
+        binaryCollectionData = binarySerialization.toData(collectionEntry);
+        System.out.printf("%nbook info: java %d bytes, binary %d bytes; collection of %d items: java %d bytes, binary %d bytes%n",
+            javaBookInfoData.totalSize(), binaryBookInfoData.totalSize(), itemCount,
+            javaCollectionData.totalSize(), binaryCollectionData.totalSize());
+    }
+
+    @TearDown
+    public void tearDown() {
+        javaSerialization.dispose();
+        binarySerialization.dispose();
+    }
+
+    @Benchmark
+    public Data javaWriteBookInfo() {
+        return javaSerialization.toData(javaBookInfo);
+    }
+
+    @Benchmark
+    public Data binaryWriteBookInfo() {
+        return binarySerialization.toData(binaryBookInfo);
+    }
+
+    @Benchmark
+    public Object javaReadBookInfo() {
+        return javaSerialization.toObject(javaBookInfoData);
+    }
+
+    @Benchmark
+    public Object binaryReadBookInfo() {
+        return binarySerialization.toObject(binaryBookInfoData);
+    }
+
+    @Benchmark
+    public Data javaWriteCollection() {
+        return javaSerialization.toData(collectionEntry);
+    }
+
+    @Benchmark
+    public Data binaryWriteCollection() {
+        return binarySerialization.toData(collectionEntry);
+    }
+
+    @Benchmark
+    public Object javaReadCollection() {
+        return javaSerialization.toObject(javaCollectionData);
+    }
+
+    @Benchmark
+    public Object binaryReadCollection() {
+        return binarySerialization.toObject(binaryCollectionData);
+    }
+
+    /**
+     * The former book info cache entry, written with Java serialization.
+     */
+    static final class JavaBookInfo implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final BookInfoDTO bookInfo;
+        private final long loadedAt;
+
+        JavaBookInfo(BookInfoDTO bookInfo, long loadedAt) {
+            this.bookInfo = bookInfo;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.my.rental.domain;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link Rental} aggregate operations run by the rental commands, on a rental that already holds
+ * {@code rentedCount} books. Each benchmark leaves the rental as it found it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RentalAggregateBenchmark {
+
+    private static final Long BOOK_ID = 1000L;
+    private static final String BOOK_TITLE = "title-1000";
+
+    @Param({"0", "4"})
+    private int rentedCount;
+
+    private Rental rental;
+
+    @Setup
+    public void setUp() {
+        rental = Rental.createRental(1L);
+        for (long bookId = 1; bookId <= rentedCount; bookId++) {
+            rental.rentBook(bookId, "title-" + bookId);
+        }
+    }
+
+    @Benchmark
+    public boolean checkRentalAvailable() throws Exception {
+        return rental.checkRentalAvailable();
+    }
+
+    @Benchmark
+    public Rental rentAndReturnBook() {
+        rental.rentBook(BOOK_ID, BOOK_TITLE);
+        return rental.returnBooks(BOOK_ID);
+    }
+
+    @Benchmark
+    public ReturnedItem overdueAndReturnBook() {
+        rental.rentBook(BOOK_ID, BOOK_TITLE);
+        rental.overdueBook(BOOK_ID);
+        return rental.returnOverdueBook(BOOK_ID);
+    }
+}
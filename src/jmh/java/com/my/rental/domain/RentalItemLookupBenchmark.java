@@ -0,0 +1,60 @@
+package com.my.rental.domain;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Item lookup of a {@link Rental} holding many items.
+ * <p>
+ * {@code hashSetReturnBook} reproduces the former mapping, a {@link HashSet} of items whose
+ * {@code hashCode} is a constant, searched with a stream scan. {@code rentalReturnBook} uses the
+ * bookId keyed map of the current {@link Rental}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RentalItemLookupBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int itemCount;
+
+    private Rental rental;
+    private Set<RentedItem> rentedItemSet;
+    private Long bookId;
+
+    @Setup
+    public void setUp() {
+        rental = Rental.createRental(1L);
+        rentedItemSet = new HashSet<>();
+        for (long i = 1; i <= itemCount; i++) {
+            RentedItem rentedItem = RentedItem.createRentedItem(i, "title-" + i, LocalDate.now());
+            rentedItem.setId(i);
+            rental.addRentedItem(rentedItem);
+            rentedItemSet.add(rentedItem);
+        }
+        bookId = (long) itemCount / 2 + 1;
+    }
+
+    @Benchmark
+    public RentedItem hashSetReturnBook() {
+        RentedItem rentedItem = rentedItemSet.stream()
+            .filter(item -> item.getBookId().equals(bookId)).findFirst().get();
+        rentedItemSet.remove(rentedItem);
+        rentedItemSet.add(rentedItem);
+        return rentedItem;
+    }
+
+    @Benchmark
+    public Rental rentalReturnBook() {
+        RentedItem rentedItem = rental.getRentedItems().get(bookId);
+        rental.returnBooks(bookId);
+        return rental.addRentedItem(rentedItem);
+    }
+}
@@ -0,0 +1,80 @@
+package com.my.rental.security.jwt;
+
+import io.github.jhipster.config.JHipsterProperties;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link JWTFilter} cost of an authenticated request.
+ * <p>
+ * {@code validateThenAuthenticate} is the former filter, which verified the token twice. {@code filterFirstRequest}
+ * is the first request with a token, verified once and cached, and {@code filterNextRequest} a following request
+ * with the same token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JWTFilterBenchmark {
+
+    private static final String BASE64_SECRET = "NzQ5NDgwOGEzMDcyODZmYmE3MWQ3MzNjMzk0OTk5NDU0YjRmZjU1ZGRmYjVjNzU5OWE5OWU1MDRkOWY1ZTE0ZTAwZDUyYWViYjEyY2E3NWVlYTNlODA4YjUxYzdhZDk4MWIwZTA1MTk2MDE5MzJhNDg0N2VkMzI4NWZlOTgxOWM=";
+
+    private TokenProvider tokenProvider;
+    private JWTFilter jwtFilter;
+    private String token;
+    private HttpServletRequest request;
+    private FilterChain filterChain;
+
+    @Setup
+    public void setUp() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(BASE64_SECRET);
+        tokenProvider = new TokenProvider(jHipsterProperties);
+        tokenProvider.init();
+        jwtFilter = new JWTFilter(tokenProvider);
+        Authentication authentication = new UsernamePasswordAuthenticationToken("user", "",
+            AuthorityUtils.createAuthorityList("ROLE_USER", "ROLE_ADMIN"));
+        token = tokenProvider.createToken(authentication, false);
+        // 필터는 Authorization 헤더만 읽는다
+        String bearerToken = "Bearer " + token;
+        request = (HttpServletRequest) Proxy.newProxyInstance(HttpServletRequest.class.getClassLoader(),
+            new Class<?>[]{HttpServletRequest.class},
+            (proxy, method, args) -> "getHeader".equals(method.getName()) ? bearerToken : null);
+        filterChain = (servletRequest, servletResponse) -> { };
+    }
+
+    @Benchmark
+    public Authentication validateThenAuthenticate() {
+        return tokenProvider.validateToken(token) ? tokenProvider.getAuthentication(token) : null;
+    }
+
+    @Benchmark
+    public Authentication filterFirstRequest() throws IOException, ServletException {
+        tokenProvider.clearAuthenticationCache();
+        return filter();
+    }
+
+    @Benchmark
+    public Authentication filterNextRequest() throws IOException, ServletException {
+        return filter();
+    }
+
+    private Authentication filter() throws IOException, ServletException {
+        jwtFilter.doFilter(request, null, filterChain);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -0,0 +1,53 @@
+package com.my.rental.security.jwt;
+
+import io.github.jhipster.config.JHipsterProperties;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The JWT work of an authenticated request: {@code validateToken} then {@code getAuthentication} on the same
+ * token, as done by {@link JWTFilter}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenProviderBenchmark {
+
+    private static final String BASE64_SECRET = "NzQ5NDgwOGEzMDcyODZmYmE3MWQ3MzNjMzk0OTk5NDU0YjRmZjU1ZGRmYjVjNzU5OWE5OWU1MDRkOWY1ZTE0ZTAwZDUyYWViYjEyY2E3NWVlYTNlODA4YjUxYzdhZDk4MWIwZTA1MTk2MDE5MzJhNDg0N2VkMzI4NWZlOTgxOWM=";
+
+    private TokenProvider tokenProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(BASE64_SECRET);
+        tokenProvider = new TokenProvider(jHipsterProperties);
+        tokenProvider.init();
+        Authentication authentication = new UsernamePasswordAuthenticationToken("user", "",
+            AuthorityUtils.createAuthorityList("ROLE_USER", "ROLE_ADMIN"));
+        token = tokenProvider.createToken(authentication, false);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public Authentication getAuthentication() {
+        return tokenProvider.getAuthentication(token);
+    }
+
+    @Benchmark
+    public Authentication filterRequest() {
+        return tokenProvider.validateToken(token) ? tokenProvider.getAuthentication(token) : null;
+    }
+}
@@ -0,0 +1,82 @@
+package com.my.rental.web.rest.mapper;
+
+import com.my.rental.domain.Rental;
+import com.my.rental.domain.RentedItem;
+import com.my.rental.web.rest.dto.RentalDTO;
+import com.my.rental.web.rest.dto.RentedItemDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The MapStruct conversions of a page of {@code pageSize} rentals and rented items, both ways.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RentalMapperBenchmark {
+
+    @Param({"20", "500"})
+    private int pageSize;
+
+    private RentalMapper rentalMapper;
+    private RentedItemMapper rentedItemMapper;
+
+    private List<Rental> rentals;
+    private List<RentalDTO> rentalDTOs;
+    private List<RentedItem> rentedItems;
+    private List<RentedItemDTO> rentedItemDTOs;
+
+    @Setup
+    public void setUp() {
+        rentalMapper = new RentalMapperImpl();
+        rentedItemMapper = new RentedItemMapperImpl();
+        // 스프링 없이 만들었으므로 필드 주입을 직접 한다
+        Field field = ReflectionUtils.findField(RentedItemMapperImpl.class, "rentalMapper");
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, rentedItemMapper, rentalMapper);
+
+        rentals = new ArrayList<>(pageSize);
+        rentedItems = new ArrayList<>(pageSize);
+        for (long i = 1; i <= pageSize; i++) {
+            Rental rental = Rental.createRental(i);
+            rental.setId(i);
+            rental.setVersion(0L);
+            rentals.add(rental);
+            RentedItem rentedItem = RentedItem.createRentedItem(i, "title-" + i, LocalDate.now());
+            rentedItem.setId(i);
+            rental.addRentedItem(rentedItem);
+            rentedItems.add(rentedItem);
+        }
+        rentalDTOs = rentalMapper.toDto(rentals);
+        rentedItemDTOs = rentedItemMapper.toDto(rentedItems);
+    }
+
+    @Benchmark
+    public List<RentalDTO> rentalToDto() {
+        return rentalMapper.toDto(rentals);
+    }
+
+    @Benchmark
+    public List<Rental> rentalToEntity() {
+        return rentalMapper.toEntity(rentalDTOs);
+    }
+
+    @Benchmark
+    public List<RentedItemDTO> rentedItemToDto() {
+        return rentedItemMapper.toDto(rentedItems);
+    }
+
+    @Benchmark
+    public List<RentedItem> rentedItemToEntity() {
+        return rentedItemMapper.toEntity(rentedItemDTOs);
+    }
+}
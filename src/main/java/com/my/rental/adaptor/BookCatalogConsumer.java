@@ -0,0 +1,118 @@
+package com.my.rental.adaptor;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.my.rental.config.KafkaProperties;
+import com.my.rental.domain.event.BookCatalogChanged;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.errors.WakeupException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Evicts the {@link BookInfoCache} entries of the books changed in the catalog.
+ * <p>
+ * The rental service publishes rent and return events on the same topic; they do not change the book
+ * info and are skipped. Offsets are committed automatically: a lost eviction only delays the refresh
+ * of an entry until it is older than {@code refresh-after-seconds}.
+ */
+@Service
+public class BookCatalogConsumer {
+
+    private final Logger log = LoggerFactory.getLogger(BookCatalogConsumer.class);
+
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(3);
+
+    private final KafkaProperties kafkaProperties;
+    private final BookInfoCache bookInfoCache;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private KafkaConsumer<String, String> kafkaConsumer;
+    private ExecutorService executorService;
+
+    public BookCatalogConsumer(KafkaProperties kafkaProperties, BookInfoCache bookInfoCache) {
+        this.kafkaProperties = kafkaProperties;
+        this.bookInfoCache = bookInfoCache;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (kafkaProperties.getConsumerThreads() <= 0) {
+            log.info("Kafka consumer for {} is disabled", RentalProducerImpl.TOPIC_CATALOG);
+            return;
+        }
+        Map<String, Object> consumerProps = kafkaProperties.getConsumerProps();
+        // 캐시는 클러스터가 공유하므로 인스턴스 중 하나만 이벤트를 받으면 된다
+        String groupId = consumerProps.getOrDefault("group.id", "rental") + "-book-info";
+        consumerProps.put("group.id", groupId);
+        consumerProps.put("client.id", groupId);
+        this.kafkaConsumer = new KafkaConsumer<>(consumerProps);
+        this.executorService = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "rental-catalog-consumer"));
+        executorService.execute(this::consume);
+    }
+
+    private void consume() {
+        try {
+            kafkaConsumer.subscribe(Collections.singleton(RentalProducerImpl.TOPIC_CATALOG));
+            while (!closed.get()) {
+                for (ConsumerRecord<String, String> record : kafkaConsumer.poll(POLL_TIMEOUT)) {
+                    handle(record);
+                }
+            }
+        } catch (WakeupException e) {
+            if (!closed.get()) {
+                throw e;
+            }
+        } finally {
+            log.info("Kafka consumer {} closing", Thread.currentThread().getName());
+            kafkaConsumer.close();
+        }
+    }
+
+    private void handle(ConsumerRecord<String, String> record) {
+        BookCatalogChanged event;
+        try {
+            event = objectMapper.readValue(record.value(), BookCatalogChanged.class);
+        } catch (JsonProcessingException e) {
+            log.error("Skipping unreadable record {}-{}@{}: {}", record.topic(), record.partition(), record.offset(), e.getMessage());
+            return;
+        }
+        if (event.getBookId() == null || isRentalEvent(event.getEventType())) {
+            return;
+        }
+        bookInfoCache.evict(event.getBookId());
+    }
+
+    private boolean isRentalEvent(String eventType) {
+        return "RENT_BOOK".equalsIgnoreCase(eventType) || "RETURN_BOOK".equalsIgnoreCase(eventType);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (executorService == null) {
+            return;
+        }
+        log.info("Shutdown Kafka consumer");
+        closed.set(true);
+        kafkaConsumer.wakeup();
+        executorService.shutdown();
+        if (!executorService.awaitTermination(10, TimeUnit.SECONDS)) {
+            executorService.shutdownNow();
+        }
+    }
+}
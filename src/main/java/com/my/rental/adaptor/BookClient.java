@@ -6,9 +6,16 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
 
 @FeignClient(name = "book", configuration = {FeignAutoConfiguration.class})
 public interface BookClient {
     @GetMapping("/api/books/bookInfo/{bookId}")
     ResponseEntity<BookInfoDTO> findBookInfo(@PathVariable("bookId") Long bookid);
+
+    // 여러 도서의 정보를 한 번에 조회
+    @GetMapping("/api/books/bookInfos")
+    ResponseEntity<List<BookInfoDTO>> findBookInfos(@RequestParam("bookIds") List<Long> bookIds);
 }
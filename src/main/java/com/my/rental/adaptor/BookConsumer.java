@@ -1,24 +1,216 @@
 package com.my.rental.adaptor;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.my.rental.config.KafkaProperties;
+import com.my.rental.domain.event.StockChangeResult;
 import com.my.rental.service.RentalService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.KafkaException;
 import org.apache.kafka.common.errors.WakeupException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Consumes the stock change results of the book service.
+ * <p>
+ * Every consumer thread owns one {@link KafkaConsumer} of the same group, so the partitions of the topic are
+ * spread over the threads. Each poll batch is applied in a single transaction and the offsets are committed
+ * manually after the database commit: a crash in between re-delivers the batch (at-least-once).
+ * <p>
+ * A failed batch is retried {@value #MAX_BATCH_ATTEMPTS} times in all, then replayed one record per transaction:
+ * a record that still fails is logged, counted in {@code rental.consumer.skipped} and skipped, so that one poison
+ * record cannot stall its partition.
+ * <p>
+ * A Kafka error of a poll or a commit, e.g. a {@link org.apache.kafka.clients.consumer.CommitFailedException} after
+ * a rebalance, is logged and counted in {@code rental.consumer.errors}, and the thread keeps polling: the batch
+ * whose offsets were not committed is delivered again.
+ */
 @Service
 public class BookConsumer {
 
+    private final Logger log = LoggerFactory.getLogger(BookConsumer.class);
 
+    public static final String TOPIC_BOOK_RESULT = "topic_book_result";
+
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(3);
+    private static final long RETRY_BACKOFF_MS = 1000;
+    static final int MAX_BATCH_ATTEMPTS = 3;
+
+    private final KafkaProperties kafkaProperties;
+    private final RentalService rentalService;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final List<KafkaConsumer<String, String>> consumers = new CopyOnWriteArrayList<>();
+    private ExecutorService executorService;
+
+    private final Counter recordsCounter;
+    private final Counter skippedCounter;
+    private final Counter errorCounter;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer commitTimer;
+
+    public BookConsumer(KafkaProperties kafkaProperties, RentalService rentalService, MeterRegistry meterRegistry) {
+        this.kafkaProperties = kafkaProperties;
+        this.rentalService = rentalService;
+        this.meterRegistry = meterRegistry;
+        this.recordsCounter = meterRegistry.counter("rental.consumer.records", "topic", TOPIC_BOOK_RESULT);
+        this.skippedCounter = meterRegistry.counter("rental.consumer.skipped", "topic", TOPIC_BOOK_RESULT);
+        this.errorCounter = meterRegistry.counter("rental.consumer.errors", "topic", TOPIC_BOOK_RESULT);
+        this.batchSizeSummary = DistributionSummary.builder("rental.consumer.batch.size")
+            .tag("topic", TOPIC_BOOK_RESULT)
+            .register(meterRegistry);
+        this.commitTimer = meterRegistry.timer("rental.consumer.commit", "topic", TOPIC_BOOK_RESULT);
+    }
+
+    @PostConstruct
+    public void start() {
+        int threads = kafkaProperties.getConsumerThreads();
+        if (threads <= 0) {
+            log.info("Kafka consumer for {} is disabled", TOPIC_BOOK_RESULT);
+            return;
+        }
+        log.info("Kafka consumer starting with {} thread(s)...", threads);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executorService = Executors.newFixedThreadPool(threads,
+            runnable -> new Thread(runnable, "rental-book-consumer-" + threadNumber.incrementAndGet()));
+        for (int i = 0; i < threads; i++) {
+            KafkaConsumer<String, String> consumer = new KafkaConsumer<>(getConsumerProps(i));
+            consumers.add(consumer);
+            executorService.execute(() -> consume(consumer));
+        }
+    }
+
+    private Map<String, Object> getConsumerProps(int index) {
+        Map<String, Object> consumerProps = kafkaProperties.getConsumerProps();
+        // 오프셋은 DB 커밋 이후에 직접 커밋한다
+        consumerProps.put("enable.auto.commit", false);
+        consumerProps.put("client.id", consumerProps.getOrDefault("group.id", "rental") + "-book-" + index);
+        return consumerProps;
+    }
+
+    void consume(Consumer<String, String> consumer) {
+        try {
+            consumer.subscribe(Collections.singleton(TOPIC_BOOK_RESULT));
+            while (!closed.get()) {
+                try {
+                    ConsumerRecords<String, String> records = consumer.poll(POLL_TIMEOUT);
+                    if (records.isEmpty()) {
+                        continue;
+                    }
+                    apply(records);
+                    commitTimer.record(() -> consumer.commitSync());
+                    recordsCounter.increment(records.count());
+                    batchSizeSummary.record(records.count());
+                } catch (WakeupException e) {
+                    throw e;
+                } catch (KafkaException e) {
+                    // 커밋하지 못한 배치는 다시 전달된다(리밸런스 후 커밋된 오프셋부터), 스레드는 계속 poll 한다
+                    log.error("Kafka consumer {} failed, polling again: {}", Thread.currentThread().getName(), e.toString());
+                    errorCounter.increment();
+                    Thread.sleep(RETRY_BACKOFF_MS);
+                }
+            }
+        } catch (WakeupException e) {
+            if (!closed.get()) {
+                throw e;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            log.info("Kafka consumer {} closing", Thread.currentThread().getName());
+            consumer.close();
+        }
+    }
+
+    /**
+     * Applies a poll batch in one transaction, retrying it {@value #MAX_BATCH_ATTEMPTS} times in all, then one
+     * record per transaction, skipping the records that still fail. Once it returns, the offsets can be committed.
+     */
+    void apply(ConsumerRecords<String, String> records) throws InterruptedException {
+        List<ConsumerRecord<String, String>> parsed = new ArrayList<>(records.count());
+        List<StockChangeResult> results = new ArrayList<>(records.count());
+        for (ConsumerRecord<String, String> record : records) {
+            StockChangeResult result = parse(record);
+            if (result != null) {
+                parsed.add(record);
+                results.add(result);
+            }
+        }
+        for (int attempt = 1; attempt <= MAX_BATCH_ATTEMPTS; attempt++) {
+            try {
+                rentalService.applyStockChangeResults(results);
+                return;
+            } catch (Exception e) {
+                // 트랜잭션이 롤백되었으므로 배치 전체를 다시 처리한다
+                log.error("Failed to apply {} stock change results (attempt {} of {}): {}", results.size(), attempt,
+                    MAX_BATCH_ATTEMPTS, e.getMessage());
+                if (attempt < MAX_BATCH_ATTEMPTS) {
+                    Thread.sleep(RETRY_BACKOFF_MS);
+                }
+            }
+        }
+        // 계속 실패하는 레코드를 찾아 건너뛰도록 한 건씩 처리한다
+        for (int i = 0; i < results.size(); i++) {
+            ConsumerRecord<String, String> record = parsed.get(i);
+            try {
+                rentalService.applyStockChangeResults(Collections.singletonList(results.get(i)));
+            } catch (Exception e) {
+                log.error("Skipping stock change result {}-{}@{} {}: {}", record.topic(), record.partition(), record.offset(),
+                    record.value(), e.getMessage());
+                skippedCounter.increment();
+            }
+        }
+    }
+
+    private StockChangeResult parse(ConsumerRecord<String, String> record) {
+        try {
+            return objectMapper.readValue(record.value(), StockChangeResult.class);
+        } catch (JsonProcessingException e) {
+            // 해석할 수 없는 메시지는 재시도해도 실패하므로 건너뛴다
+            log.error("Skipping unreadable record {}-{}@{}: {}", record.topic(), record.partition(), record.offset(), e.getMessage());
+            skippedCounter.increment();
+            return null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        closed.set(true);
+        if (executorService == null) {
+            return;
+        }
+        log.info("Shutdown Kafka consumer");
+        consumers.forEach(KafkaConsumer::wakeup);
+        executorService.shutdown();
+        if (!executorService.awaitTermination(10, TimeUnit.SECONDS)) {
+            executorService.shutdownNow();
+        }
+    }
 }
@@ -0,0 +1,299 @@
+package com.my.rental.adaptor;
+
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.listener.EntryEvictedListener;
+import com.hazelcast.map.listener.EntryExpiredListener;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.my.rental.config.ApplicationProperties;
+import com.my.rental.config.RentalDataSerializableFactory;
+import com.my.rental.web.rest.dto.BookInfoDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Caches the {@link BookInfoDTO} of the book service by book id.
+ * <p>
+ * Entries live in the {@value #MAP_NAME} Hazelcast map, bounded in size and time, with a near cache
+ * so that most reads never leave the JVM. An entry older than {@code refresh-after-seconds} is still
+ * returned and reloaded in the background, so the rent path only waits for the book service on a miss.
+ * Catalog events evict the changed books ({@link BookCatalogConsumer}).
+ */
+@Service
+public class BookInfoCache {
+
+    public static final String MAP_NAME = "bookInfo";
+
+    private final Logger log = LoggerFactory.getLogger(BookInfoCache.class);
+
+    private final BookClient bookClient;
+    private final Executor taskExecutor;
+    private final IMap<Long, CachedBookInfo> bookInfos;
+    private final long refreshAfterMillis;
+
+    private final Set<Long> refreshing = ConcurrentHashMap.newKeySet();
+    private final Counter hitCounter;
+    private final Counter staleCounter;
+    private final Counter missCounter;
+    private final Counter evictionCounter;
+    private final ClientTimers findBookInfoTimers;
+    private final ClientTimers findBookInfosTimers;
+
+    public BookInfoCache(BookClient bookClient, HazelcastInstance hazelcastInstance,
+                         @Qualifier("taskExecutor") Executor taskExecutor,
+                         ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.bookClient = bookClient;
+        this.taskExecutor = taskExecutor;
+        this.bookInfos = hazelcastInstance.getMap(MAP_NAME);
+        this.refreshAfterMillis = TimeUnit.SECONDS.toMillis(applicationProperties.getBookInfoCache().getRefreshAfterSeconds());
+        this.hitCounter = meterRegistry.counter("rental.book.info.cache", "result", "hit");
+        this.staleCounter = meterRegistry.counter("rental.book.info.cache", "result", "stale");
+        this.missCounter = meterRegistry.counter("rental.book.info.cache", "result", "miss");
+        this.evictionCounter = meterRegistry.counter("rental.book.info.cache.evictions");
+        this.findBookInfoTimers = new ClientTimers("findBookInfo", meterRegistry);
+        this.findBookInfosTimers = new ClientTimers("findBookInfos", meterRegistry);
+        // 크기/TTL 제한으로 이 멤버에서 빠진 항목만 센다
+        bookInfos.addLocalEntryListener(new EvictionListener());
+    }
+
+    /**
+     * Get the book info of a book, from the cache when possible.
+     *
+     * @param bookId the id of the book.
+     * @return the book info.
+     * @throws InvalidBookInfoException if the book service answered with an empty or invalid body.
+     */
+    public BookInfoDTO findBookInfo(Long bookId) {
+        CachedBookInfo cached = bookInfos.get(bookId);
+        if (cached == null) {
+            missCounter.increment();
+            return load(bookId);
+        }
+        if (System.currentTimeMillis() - cached.loadedAt > refreshAfterMillis) {
+            staleCounter.increment();
+            refreshLater(bookId);
+        } else {
+            hitCounter.increment();
+        }
+        return cached.bookInfo;
+    }
+
+    /**
+     * Get the book infos of several books, loading all the missing ones with a single call to the book service.
+     *
+     * @param bookIds the ids of the books.
+     * @return the book infos by book id, books unknown to the book service are absent.
+     * @throws InvalidBookInfoException if the book service answered with an empty or invalid body.
+     */
+    public Map<Long, BookInfoDTO> findBookInfos(Collection<Long> bookIds) {
+        Set<Long> keys = new LinkedHashSet<>(bookIds);
+        Map<Long, CachedBookInfo> cached = bookInfos.getAll(keys);
+        Map<Long, BookInfoDTO> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (Long bookId : keys) {
+            CachedBookInfo cachedBookInfo = cached.get(bookId);
+            if (cachedBookInfo == null) {
+                missCounter.increment();
+                missing.add(bookId);
+                continue;
+            }
+            if (now - cachedBookInfo.loadedAt > refreshAfterMillis) {
+                staleCounter.increment();
+                refreshLater(bookId);
+            } else {
+                hitCounter.increment();
+            }
+            result.put(bookId, cachedBookInfo.bookInfo);
+        }
+        if (!missing.isEmpty()) {
+            result.putAll(loadAll(missing));
+        }
+        return result;
+    }
+
+    /**
+     * Evict a book from the cache, on every member of the cluster.
+     *
+     * @param bookId the id of the book.
+     */
+    public void evict(Long bookId) {
+        log.debug("Evicting book info {}", bookId);
+        bookInfos.delete(bookId);
+    }
+
+    private BookInfoDTO load(Long bookId) {
+        BookInfoDTO bookInfo = callBookService(findBookInfoTimers, () -> bookClient.findBookInfo(bookId));
+        // 빈 응답이나 다른 도서의 응답은 캐시에 넣지 않는다
+        if (!isValid(bookInfo) || !bookId.equals(bookInfo.getId())) {
+            throw new InvalidBookInfoException(bookId);
+        }
+        bookInfos.set(bookId, new CachedBookInfo(bookInfo, System.currentTimeMillis()));
+        return bookInfo;
+    }
+
+    private Map<Long, BookInfoDTO> loadAll(List<Long> bookIds) {
+        List<BookInfoDTO> loaded = callBookService(findBookInfosTimers, () -> bookClient.findBookInfos(bookIds));
+        if (loaded == null) {
+            throw new InvalidBookInfoException(bookIds.get(0));
+        }
+        Map<Long, BookInfoDTO> result = new HashMap<>();
+        Map<Long, CachedBookInfo> entries = new HashMap<>();
+        long now = System.currentTimeMillis();
+        for (BookInfoDTO bookInfo : loaded) {
+            // 잘못된 항목이 하나라도 있으면 응답 전체를 캐시하지 않는다
+            if (!isValid(bookInfo)) {
+                throw new InvalidBookInfoException(bookInfo == null ? bookIds.get(0) : bookInfo.getId());
+            }
+            result.put(bookInfo.getId(), bookInfo);
+            entries.put(bookInfo.getId(), new CachedBookInfo(bookInfo, now));
+        }
+        bookInfos.putAll(entries);
+        return result;
+    }
+
+    private static boolean isValid(BookInfoDTO bookInfo) {
+        return bookInfo != null && bookInfo.getId() != null && bookInfo.getTitle() != null;
+    }
+
+    private <T> T callBookService(ClientTimers timers, Supplier<ResponseEntity<T>> call) {
+        // Feign 10.7 에는 지표 확장점이 없어 BookClient 호출을 여기서 잰다
+        long start = System.nanoTime();
+        Timer timer = timers.failure;
+        try {
+            T body = call.get().getBody();
+            timer = timers.success;
+            return body;
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void refreshLater(Long bookId) {
+        if (!refreshing.add(bookId)) {
+            return;
+        }
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    load(bookId);
+                } catch (RuntimeException e) {
+                    // 도서 서비스가 응답하지 않으면 기존 항목을 계속 사용한다
+                    log.warn("Could not refresh book info {}: {}", bookId, e.getMessage());
+                } finally {
+                    refreshing.remove(bookId);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            refreshing.remove(bookId);
+        }
+    }
+
+    private class EvictionListener implements EntryEvictedListener<Long, CachedBookInfo>, EntryExpiredListener<Long, CachedBookInfo> {
+
+        @Override
+        public void entryEvicted(EntryEvent<Long, CachedBookInfo> event) {
+            evictionCounter.increment();
+        }
+
+        @Override
+        public void entryExpired(EntryEvent<Long, CachedBookInfo> event) {
+            evictionCounter.increment();
+        }
+    }
+
+    /**
+     * The {@code rental.book.client} timers of one book service method, one per outcome.
+     */
+    private static final class ClientTimers {
+
+        private final Timer success;
+        private final Timer failure;
+
+        private ClientTimers(String method, MeterRegistry meterRegistry) {
+            this.success = timer(method, "success", meterRegistry);
+            this.failure = timer(method, "failure", meterRegistry);
+        }
+
+        private static Timer timer(String method, String outcome, MeterRegistry meterRegistry) {
+            return Timer.builder("rental.book.client")
+                .description("Latency of the calls to the book service")
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+        }
+    }
+
+    /**
+     * A cached book info and the time it was loaded, written field by field instead of with Java serialization.
+     */
+    public static final class CachedBookInfo implements IdentifiedDataSerializable {
+
+        private BookInfoDTO bookInfo;
+        private long loadedAt;
+
+        public CachedBookInfo() {
+            // Hazelcast 역직렬화용
+        }
+
+        public CachedBookInfo(BookInfoDTO bookInfo, long loadedAt) {
+            this.bookInfo = bookInfo;
+            this.loadedAt = loadedAt;
+        }
+
+        @Override
+        public int getFactoryId() {
+            return RentalDataSerializableFactory.FACTORY_ID;
+        }
+
+        @Override
+        public int getId() {
+            return RentalDataSerializableFactory.CACHED_BOOK_INFO;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeLong(loadedAt);
+            // 박싱된 id 가 null 이어도 직렬화되도록 존재 여부를 먼저 쓴다
+            Long bookId = bookInfo.getId();
+            out.writeBoolean(bookId != null);
+            if (bookId != null) {
+                out.writeLong(bookId);
+            }
+            out.writeUTF(bookInfo.getTitle());
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            loadedAt = in.readLong();
+            bookInfo = new BookInfoDTO();
+            if (in.readBoolean()) {
+                bookInfo.setId(in.readLong());
+            }
+            bookInfo.setTitle(in.readUTF());
+        }
+    }
+}
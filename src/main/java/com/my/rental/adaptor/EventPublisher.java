@@ -0,0 +1,20 @@
+package com.my.rental.adaptor;
+
+import org.apache.kafka.clients.producer.RecordMetadata;
+
+import java.util.concurrent.CompletableFuture;
+
+// 카프카로 메시지를 발행하는 아웃바운드 어댑터 인터페이스
+// 발행은 기다리지 않고 바로 반환되며, 결과는 CompletableFuture 로 받는다
+public interface EventPublisher {
+
+    /**
+     * Send a message without waiting for the broker acknowledgement.
+     *
+     * @param topic the topic to publish to.
+     * @param key the record key, records with the same key keep their order.
+     * @param message the serialized event.
+     * @return a future completed with the record metadata once the broker acknowledged the record.
+     */
+    CompletableFuture<RecordMetadata> publish(String topic, String key, String message);
+}
@@ -0,0 +1,103 @@
+package com.my.rental.adaptor;
+
+import com.my.rental.config.KafkaProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.KafkaException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes events to Kafka, timing each record from the send to the broker acknowledgement in the
+ * {@code rental.kafka.publish} timer, tagged by topic and outcome.
+ */
+@Service
+public class EventPublisherImpl implements EventPublisher {
+
+    public static final String PUBLISH_TIMER = "rental.kafka.publish";
+
+    private final Logger log = LoggerFactory.getLogger(EventPublisherImpl.class);
+
+    private final KafkaProperties kafkaProperties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> successTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> failureTimers = new ConcurrentHashMap<>();
+    private KafkaProducer<String, String> producer;
+
+    public EventPublisherImpl(KafkaProperties kafkaProperties, MeterRegistry meterRegistry) {
+        this.kafkaProperties = kafkaProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct // 의존성 주입이 이루어진 후 초기화를 수행하는 메서드
+    public void initialize() {
+        log.info("Kafka producer initializing...");
+        this.producer = new KafkaProducer<>(kafkaProperties.getProducerProps());
+        log.info("Kafka producer initialized");
+    }
+
+    @Override
+    public CompletableFuture<RecordMetadata> publish(String topic, String key, String message) {
+        CompletableFuture<RecordMetadata> result = new CompletableFuture<>();
+        long start = System.nanoTime();
+        try {
+            // send 는 레코드를 배치에 적재만 하고 반환한다. 브로커 응답은 콜백으로 전달된다
+            producer.send(new ProducerRecord<>(topic, key, message), (metadata, exception) -> {
+                long elapsed = System.nanoTime() - start;
+                if (exception != null) {
+                    failureTimer(topic).record(elapsed, TimeUnit.NANOSECONDS);
+                    result.completeExceptionally(exception);
+                } else {
+                    successTimer(topic).record(elapsed, TimeUnit.NANOSECONDS);
+                    result.complete(metadata);
+                }
+            });
+        } catch (KafkaException e) {
+            failureTimer(topic).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private Timer successTimer(String topic) {
+        return publishTimer(successTimers, topic, "success");
+    }
+
+    private Timer failureTimer(String topic) {
+        return publishTimer(failureTimers, topic, "failure");
+    }
+
+    private Timer publishTimer(Map<String, Timer> timers, String topic, String outcome) {
+        // 콜백은 프로듀서의 I/O 스레드에서 실행되므로 토픽별 타이머를 한 번만 찾는다
+        Timer timer = timers.get(topic);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(topic, t -> publishTimer(t, outcome));
+        }
+        return timer;
+    }
+
+    private Timer publishTimer(String topic, String outcome) {
+        return Timer.builder(PUBLISH_TIMER)
+            .description("Time from the send of an event to its acknowledgement by the broker")
+            .tag("topic", topic)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("Shutdown Kafka producer");
+        producer.close();
+    }
+}
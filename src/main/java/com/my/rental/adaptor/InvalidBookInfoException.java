@@ -0,0 +1,13 @@
+package com.my.rental.adaptor;
+
+/**
+ * Thrown when the book service answered a book info request with an empty or invalid body.
+ */
+public class InvalidBookInfoException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidBookInfoException(Long bookId) {
+        super("Book service returned no valid book info for book " + bookId);
+    }
+}
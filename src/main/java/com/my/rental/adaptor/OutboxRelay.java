@@ -0,0 +1,188 @@
+package com.my.rental.adaptor;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.HazelcastInstanceNotActiveException;
+import com.hazelcast.core.IMap;
+import com.my.rental.config.ApplicationProperties;
+import com.my.rental.domain.OutboxEvent;
+import com.my.rental.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the {@link OutboxEvent} table to Kafka in batches.
+ * <p>
+ * Events are read in insertion order and keyed by their aggregate. A batch is sent in rounds: each round hands
+ * the oldest unsent event of every aggregate to the {@link EventPublisher} before any acknowledgement is awaited,
+ * so a round costs about one broker round-trip, and an aggregate never has more than one event in flight.
+ * Events of one book or one user therefore reach the broker in outbox order, even when they go to different
+ * topics; consumers of different topics still read them independently, so only the order within a topic is
+ * guaranteed to them. When an event cannot be sent, the following events of its aggregate are not sent in
+ * this run; only acknowledged events are deleted, the others are sent again, in order, on the next run.
+ * Delivery is at-least-once.
+ * <p>
+ * Every node schedules the relay, but a run only proceeds on the node holding the {@value #LOCK_KEY} lock of
+ * the {@value #LOCK_MAP_NAME} Hazelcast map, so the outbox is drained by one node at a time and events are not
+ * published twice by concurrent relays. The lock is leased for {@code lock-lease-seconds} in case the node dies,
+ * and a run ends once half of the lease has passed: no round is started after that and acknowledgements are not
+ * awaited beyond it, the events left are sent by the next run.
+ */
+@Service
+public class OutboxRelay {
+
+    public static final String LOCK_MAP_NAME = "outboxRelayLock";
+    static final String LOCK_KEY = "relay";
+
+    private final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final EventPublisher eventPublisher;
+    private final ApplicationProperties applicationProperties;
+    private final MeterRegistry meterRegistry;
+    private final IMap<String, Boolean> relayLock;
+
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private Counter publishedCounter;
+    private Counter failedCounter;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, EventPublisher eventPublisher,
+                       ApplicationProperties applicationProperties, MeterRegistry meterRegistry,
+                       HazelcastInstance hazelcastInstance) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.eventPublisher = eventPublisher;
+        this.applicationProperties = applicationProperties;
+        this.meterRegistry = meterRegistry;
+        this.relayLock = hazelcastInstance.getMap(LOCK_MAP_NAME);
+    }
+
+    @PostConstruct
+    public void initialize() {
+        Gauge.builder("rental.outbox.pending", pendingEvents, AtomicLong::doubleValue)
+            .description("Number of events waiting in the outbox")
+            .register(meterRegistry);
+        TimeGauge.builder("rental.outbox.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::doubleValue)
+            .description("Age of the oldest event waiting in the outbox")
+            .register(meterRegistry);
+        this.publishedCounter = meterRegistry.counter("rental.outbox.published");
+        this.failedCounter = meterRegistry.counter("rental.outbox.failed");
+    }
+
+    @Scheduled(fixedDelayString = "${application.outbox.relay-interval-ms:500}")
+    public void relay() {
+        ApplicationProperties.Outbox properties = applicationProperties.getOutbox();
+        try {
+            // 다른 노드가 릴레이 중이면 이번 주기는 건너뛴다, 노드가 죽어도 lease 가 지나면 잠금이 풀린다
+            if (!relayLock.tryLock(LOCK_KEY, 0, TimeUnit.SECONDS, properties.getLockLeaseSeconds(), TimeUnit.SECONDS)) {
+                log.debug("Outbox is relayed by another node");
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (HazelcastInstanceNotActiveException e) {
+            log.debug("Outbox relay skipped, Hazelcast is shutting down");
+            return;
+        }
+        try {
+            // lease 가 끝나기 전에 실행을 마쳐 다른 노드와 동시에 릴레이하지 않는다
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(properties.getLockLeaseSeconds()) / 2;
+            relayBatch(properties.getBatchSize(), deadline);
+        } finally {
+            unlock();
+        }
+    }
+
+    private void unlock() {
+        try {
+            relayLock.unlock(LOCK_KEY);
+        } catch (HazelcastInstanceNotActiveException e) {
+            // 종료 중에 Hazelcast 가 먼저 멈추면 잠금도 함께 풀린다
+            log.debug("Outbox relay lock released with the Hazelcast instance");
+        } catch (IllegalMonitorStateException e) {
+            log.warn("Outbox relay lock expired before the run ended");
+        }
+    }
+
+    private void relayBatch(int batchSize, long deadline) {
+        List<OutboxEvent> events = outboxEventRepository.findPending(PageRequest.of(0, batchSize));
+        Map<String, Deque<OutboxEvent>> unsent = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            unsent.computeIfAbsent(event.getAggregateKey(), key -> new ArrayDeque<>()).add(event);
+        }
+        List<Long> publishedIds = new ArrayList<>(events.size());
+        try {
+            while (!unsent.isEmpty() && System.nanoTime() < deadline) {
+                // 애그리거트마다 가장 오래된 이벤트 하나씩 먼저 보내고(파이프라이닝) 응답은 한꺼번에 기다린다
+                List<OutboxEvent> round = new ArrayList<>(unsent.size());
+                List<CompletableFuture<RecordMetadata>> acks = new ArrayList<>(unsent.size());
+                for (Deque<OutboxEvent> aggregateEvents : unsent.values()) {
+                    OutboxEvent event = aggregateEvents.poll();
+                    round.add(event);
+                    acks.add(eventPublisher.publish(event.getTopic(), event.getAggregateKey(), event.getPayload()));
+                }
+                for (int i = 0; i < round.size(); i++) {
+                    OutboxEvent event = round.get(i);
+                    try {
+                        acks.get(i).get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+                        publishedIds.add(event.getId());
+                    } catch (ExecutionException e) {
+                        // 실패한 이벤트 뒤의 같은 애그리거트 이벤트는 보내지 않고 다음 주기에 순서대로 다시 보낸다
+                        log.warn("Failed to publish outbox event {}: {}", event.getId(), e.getMessage());
+                        unsent.remove(event.getAggregateKey());
+                        failedCounter.increment();
+                    } catch (TimeoutException e) {
+                        // 응답을 받지 못한 이벤트는 지우지 않고 다음 주기에 다시 보낸다(중복 발행될 수 있다)
+                        log.warn("Outbox event {} not acknowledged before the end of the relay run", event.getId());
+                        unsent.remove(event.getAggregateKey());
+                    }
+                }
+                unsent.values().removeIf(Deque::isEmpty);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!publishedIds.isEmpty()) {
+            outboxEventRepository.deleteByIdIn(publishedIds);
+            publishedCounter.increment(publishedIds.size());
+        }
+        if (events.isEmpty()) {
+            // 빈 outbox 는 다시 셀 필요가 없다
+            pendingEvents.set(0);
+            lagMillis.set(0);
+            return;
+        }
+        log.debug("Relayed {} of {} outbox events", publishedIds.size(), events.size());
+        updateLag();
+    }
+
+    private void updateLag() {
+        pendingEvents.set(outboxEventRepository.count());
+        lagMillis.set(outboxEventRepository.findFirstByOrderByIdAsc()
+            .map(oldest -> Duration.between(oldest.getCreatedDate(), Instant.now()).toMillis())
+            .orElse(0L));
+    }
+}
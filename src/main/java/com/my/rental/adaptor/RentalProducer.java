@@ -2,19 +2,15 @@ package com.my.rental.adaptor;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 
-import java.util.concurrent.ExecutionException;
-
 // 메시지 발송을 위한 아웃바운드 어댑터 인터페이스
+// 이벤트는 호출한 트랜잭션 안에서 outbox 테이블에 기록되고, OutboxRelay 가 카프카로 발행한다
 public interface RentalProducer {
     //도서 서비스의 도서 상태 변경
-    void updateBookStatus(Long bookId, String bookStatus)
-        throws ExecutionException, InterruptedException, JsonProcessingException;
+    void updateBookStatus(Long bookId, String bookStatus) throws JsonProcessingException;
 
     //사용자 서비스의 포인트 적입
-    void savePoints(Long bookId, int pointPerBooks)
-        throws ExecutionException, InterruptedException, JsonProcessingException;
+    void savePoints(Long userId, int pointPerBooks) throws JsonProcessingException;
 
     // 도서 카탈로그 서비스의 도서 상태 변경
-    void updateBookCatalogStatus(Long bookId, String eventType)
-        throws ExecutionException, InterruptedException, JsonProcessingException;
+    void updateBookCatalogStatus(Long bookId, String eventType) throws JsonProcessingException;
 }
@@ -1,32 +1,86 @@
 package com.my.rental.aop.logging;
 
+import com.my.rental.config.ApplicationProperties;
 import io.github.jhipster.config.JHipsterConstants;
 
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
 import org.aspectj.lang.annotation.AfterThrowing;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Aspect for logging execution of service and repository Spring components.
  *
- * By default, it only runs with the "dev" profile.
+ * By default, it only runs with the "dev" profile. With {@code application.logging-aspect.enabled} it also runs in
+ * production: the logger and the timer of each method are looked up once, only one call in {@code sample-rate} is
+ * logged at DEBUG level while every exception is logged, arguments and results are cut at {@code max-argument-length}
+ * characters, and every call is timed in the {@code rental.method} timer so that method latency is available without
+ * DEBUG logging. The timer has one series per method and exception, so {@link #timerDistributionFilter()} keeps it
+ * to count, sum and max, without percentiles or histogram buckets.
  */
 @Aspect
 public class LoggingAspect {
 
+    public static final String TIMER_NAME = "rental.method";
+
+    private static final String NO_EXCEPTION = "none";
+
+    private static final String ELLIPSIS = "...";
+
     private final Environment env;
 
-    public LoggingAspect(Environment env) {
+    private final ApplicationProperties.LoggingAspect properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Object, MethodLog> methodLogs = new ConcurrentHashMap<>();
+
+    public LoggingAspect(Environment env, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
         this.env = env;
+        this.properties = applicationProperties.getLoggingAspect();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Turns off the percentiles and the histogram that {@code management.metrics.distribution.*.all} gives every
+     * timer, for the {@value #TIMER_NAME} timer: it must be applied after the filter of these properties.
+     *
+     * @return the meter filter.
+     */
+    public static MeterFilter timerDistributionFilter() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!TIMER_NAME.equals(id.getName())) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                    .percentilesHistogram(false)
+                    .percentiles()
+                    .build()
+                    .merge(config);
+            }
+        };
     }
 
     /**
@@ -50,13 +104,20 @@ public class LoggingAspect {
     }
 
     /**
-     * Retrieves the {@link Logger} associated to the given {@link JoinPoint}.
+     * Retrieves the {@link MethodLog} associated to the given {@link JoinPoint}, created on its first call.
      *
-     * @param joinPoint join point we want the logger for.
-     * @return {@link Logger} associated to the given {@link JoinPoint}.
+     * @param joinPoint join point we want the logger and the timer for.
+     * @return {@link MethodLog} associated to the given {@link JoinPoint}.
      */
-    private Logger logger(JoinPoint joinPoint) {
-        return LoggerFactory.getLogger(joinPoint.getSignature().getDeclaringTypeName());
+    private MethodLog methodLog(JoinPoint joinPoint) {
+        Signature signature = joinPoint.getSignature();
+        // 시그니처 객체는 호출마다 새로 만들어지므로 Method 로 찾는다
+        Object key = signature instanceof MethodSignature ? ((MethodSignature) signature).getMethod() : signature.toLongString();
+        MethodLog methodLog = methodLogs.get(key);
+        if (methodLog == null) {
+            methodLog = methodLogs.computeIfAbsent(key, k -> new MethodLog(signature));
+        }
+        return methodLog;
     }
 
     /**
@@ -67,27 +128,29 @@ public class LoggingAspect {
      */
     @AfterThrowing(pointcut = "applicationPackagePointcut() && springBeanPointcut()", throwing = "e")
     public void logAfterThrowing(JoinPoint joinPoint, Throwable e) {
+        // 예외는 샘플링하지 않고 모두 기록한다
+        MethodLog methodLog = methodLog(joinPoint);
         if (env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT))) {
-            logger(joinPoint)
+            methodLog.log
                 .error(
                     "Exception in {}() with cause = \'{}\' and exception = \'{}\'",
-                    joinPoint.getSignature().getName(),
+                    methodLog.name,
                     e.getCause() != null ? e.getCause() : "NULL",
                     e.getMessage(),
                     e
                 );
         } else {
-            logger(joinPoint)
+            methodLog.log
                 .error(
                     "Exception in {}() with cause = {}",
-                    joinPoint.getSignature().getName(),
+                    methodLog.name,
                     e.getCause() != null ? e.getCause() : "NULL"
                 );
         }
     }
 
     /**
-     * Advice that logs when a method is entered and exited.
+     * Advice that logs when a method is entered and exited, and times it.
      *
      * @param joinPoint join point for advice.
      * @return result.
@@ -95,19 +158,121 @@ public class LoggingAspect {
      */
     @Around("applicationPackagePointcut() && springBeanPointcut()")
     public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
-        Logger log = logger(joinPoint);
-        if (log.isDebugEnabled()) {
-            log.debug("Enter: {}() with argument[s] = {}", joinPoint.getSignature().getName(), Arrays.toString(joinPoint.getArgs()));
+        MethodLog methodLog = methodLog(joinPoint);
+        Logger log = methodLog.log;
+        boolean logged = log.isDebugEnabled() && methodLog.sampled();
+        if (logged) {
+            log.debug("Enter: {}() with argument[s] = {}", methodLog.name, abbreviate(joinPoint.getArgs(), properties.getMaxArgumentLength()));
         }
+        long start = System.nanoTime();
         try {
             Object result = joinPoint.proceed();
-            if (log.isDebugEnabled()) {
-                log.debug("Exit: {}() with result = {}", joinPoint.getSignature().getName(), result);
+            methodLog.record(System.nanoTime() - start, null);
+            if (logged) {
+                log.debug("Exit: {}() with result = {}", methodLog.name, abbreviate(result, properties.getMaxArgumentLength()));
             }
             return result;
         } catch (IllegalArgumentException e) {
-            log.error("Illegal argument: {} in {}()", Arrays.toString(joinPoint.getArgs()), joinPoint.getSignature().getName());
+            methodLog.record(System.nanoTime() - start, e);
+            log.error("Illegal argument: {} in {}()", abbreviate(joinPoint.getArgs(), properties.getMaxArgumentLength()), methodLog.name);
+            throw e;
+        } catch (Throwable e) {
+            methodLog.record(System.nanoTime() - start, e);
             throw e;
         }
     }
+
+    /**
+     * Renders a value for the logs in at most about {@code maxLength} characters. Arrays, collections and maps are
+     * rendered element by element until the limit is reached, so that a large argument is not converted as a whole.
+     *
+     * @param value the value to render.
+     * @param maxLength the maximum length of the rendering, not counting the markers of what was cut.
+     * @return the rendering of the value.
+     */
+    static String abbreviate(Object value, int maxLength) {
+        StringBuilder out = new StringBuilder(Math.min(maxLength, 256));
+        append(out, value, maxLength);
+        return out.toString();
+    }
+
+    private static void append(StringBuilder out, Object value, int limit) {
+        if (value instanceof Object[]) {
+            appendAll(out, Arrays.asList((Object[]) value), '[', ']', limit);
+        } else if (value instanceof Collection) {
+            appendAll(out, (Collection<?>) value, '[', ']', limit);
+        } else if (value instanceof Map) {
+            appendAll(out, ((Map<?, ?>) value).entrySet(), '{', '}', limit);
+        } else {
+            String text = String.valueOf(value);
+            int remaining = Math.max(limit - out.length(), 0);
+            if (text.length() <= remaining) {
+                out.append(text);
+            } else {
+                out.append(text, 0, remaining).append(ELLIPSIS);
+            }
+        }
+    }
+
+    private static void appendAll(StringBuilder out, Collection<?> values, char open, char close, int limit) {
+        out.append(open);
+        int appended = 0;
+        for (Object value : values) {
+            if (appended > 0) {
+                out.append(", ");
+            }
+            if (out.length() >= limit) {
+                out.append(ELLIPSIS).append(values.size() - appended).append(" more");
+                break;
+            }
+            append(out, value, limit);
+            appended++;
+        }
+        out.append(close);
+    }
+
+    /**
+     * Logger, timer and sampling counters of one advised method.
+     */
+    private final class MethodLog {
+
+        private final Logger log;
+
+        private final String name;
+
+        private final String declaringType;
+
+        private final Timer timer;
+
+        private final AtomicLong calls = new AtomicLong();
+
+        private MethodLog(Signature signature) {
+            this.log = LoggerFactory.getLogger(signature.getDeclaringTypeName());
+            this.name = signature.getName();
+            this.declaringType = signature.getDeclaringType().getSimpleName();
+            this.timer = properties.isTimers() ? timer(NO_EXCEPTION) : null;
+        }
+
+        private boolean sampled() {
+            int sampleRate = properties.getSampleRate();
+            return sampleRate <= 1 || calls.getAndIncrement() % sampleRate == 0;
+        }
+
+        private void record(long nanos, Throwable e) {
+            if (timer == null) {
+                return;
+            }
+            // 예외별 타이머는 드물게 쓰이므로 미리 만들어 두지 않는다
+            (e == null ? timer : timer(e.getClass().getSimpleName())).record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        private Timer timer(String exception) {
+            return Timer.builder(TIMER_NAME)
+                .description("Execution time of the repository, service and REST methods")
+                .tag("class", declaringType)
+                .tag("method", name)
+                .tag("exception", exception)
+                .register(meterRegistry);
+        }
+    }
 }
@@ -2,6 +2,9 @@ package com.my.rental.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Properties specific to Rental.
  * <p>
@@ -10,4 +13,445 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final Outbox outbox = new Outbox();
+
+    private final Rental rental = new Rental();
+
+    private final BookInfoCache bookInfoCache = new BookInfoCache();
+
+    private final RentalIdCache rentalIdCache = new RentalIdCache();
+
+    private final HibernateCache hibernateCache = new HibernateCache();
+
+    private final Overdue overdue = new Overdue();
+
+    private final RentalSummary rentalSummary = new RentalSummary();
+
+    private final LoggingAspect loggingAspect = new LoggingAspect();
+
+    private final Audit audit = new Audit();
+
+    public Outbox getOutbox() {
+        return outbox;
+    }
+
+    public Rental getRental() {
+        return rental;
+    }
+
+    public BookInfoCache getBookInfoCache() {
+        return bookInfoCache;
+    }
+
+    public RentalIdCache getRentalIdCache() {
+        return rentalIdCache;
+    }
+
+    public HibernateCache getHibernateCache() {
+        return hibernateCache;
+    }
+
+    public Overdue getOverdue() {
+        return overdue;
+    }
+
+    public RentalSummary getRentalSummary() {
+        return rentalSummary;
+    }
+
+    public LoggingAspect getLoggingAspect() {
+        return loggingAspect;
+    }
+
+    public Audit getAudit() {
+        return audit;
+    }
+
+    public static class Outbox {
+
+        private int batchSize = 100;
+
+        private long lockLeaseSeconds = 300;
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getLockLeaseSeconds() {
+            return lockLeaseSeconds;
+        }
+
+        public void setLockLeaseSeconds(long lockLeaseSeconds) {
+            this.lockLeaseSeconds = lockLeaseSeconds;
+        }
+    }
+
+    public static class Rental {
+
+        private ConcurrencyMode concurrencyMode = ConcurrencyMode.OPTIMISTIC;
+
+        private int maxAttempts = 5;
+
+        private long retryBackoffMs = 20;
+
+        private int commandLanes = 16;
+
+        private int commandQueueCapacity = 50;
+
+        private long commandTimeoutMs = 10000;
+
+        public ConcurrencyMode getConcurrencyMode() {
+            return concurrencyMode;
+        }
+
+        public void setConcurrencyMode(ConcurrencyMode concurrencyMode) {
+            this.concurrencyMode = concurrencyMode;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getRetryBackoffMs() {
+            return retryBackoffMs;
+        }
+
+        public void setRetryBackoffMs(long retryBackoffMs) {
+            this.retryBackoffMs = retryBackoffMs;
+        }
+
+        public int getCommandLanes() {
+            return commandLanes;
+        }
+
+        public void setCommandLanes(int commandLanes) {
+            this.commandLanes = commandLanes;
+        }
+
+        public int getCommandQueueCapacity() {
+            return commandQueueCapacity;
+        }
+
+        public void setCommandQueueCapacity(int commandQueueCapacity) {
+            this.commandQueueCapacity = commandQueueCapacity;
+        }
+
+        public long getCommandTimeoutMs() {
+            return commandTimeoutMs;
+        }
+
+        public void setCommandTimeoutMs(long commandTimeoutMs) {
+            this.commandTimeoutMs = commandTimeoutMs;
+        }
+    }
+
+    public static class BookInfoCache {
+
+        private int timeToLiveSeconds = 86400;
+
+        private int refreshAfterSeconds = 600;
+
+        private int maxSize = 10000;
+
+        public int getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+
+        public int getRefreshAfterSeconds() {
+            return refreshAfterSeconds;
+        }
+
+        public void setRefreshAfterSeconds(int refreshAfterSeconds) {
+            this.refreshAfterSeconds = refreshAfterSeconds;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    public static class RentalIdCache {
+
+        private int timeToLiveSeconds = 86400;
+
+        private int maxSize = 100000;
+
+        public int getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    public static class HibernateCache {
+
+        private int defaultMaxSize = 10000;
+
+        private Map<String, Region> regions = new LinkedHashMap<>();
+
+        public int getDefaultMaxSize() {
+            return defaultMaxSize;
+        }
+
+        public void setDefaultMaxSize(int defaultMaxSize) {
+            this.defaultMaxSize = defaultMaxSize;
+        }
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public void setRegions(Map<String, Region> regions) {
+            this.regions = regions;
+        }
+
+        /**
+         * Sizing of one second-level cache region, i.e. one Hazelcast map named after the entity or collection role.
+         */
+        public static class Region {
+
+            private int maxSize = 10000;
+
+            private Integer timeToLiveSeconds;
+
+            private boolean nearCache;
+
+            public int getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(int maxSize) {
+                this.maxSize = maxSize;
+            }
+
+            public Integer getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(Integer timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public boolean isNearCache() {
+                return nearCache;
+            }
+
+            public void setNearCache(boolean nearCache) {
+                this.nearCache = nearCache;
+            }
+        }
+    }
+
+    public static class Overdue {
+
+        private String cron = "0 0 1 * * ?";
+
+        private int partitions = 16;
+
+        private int threads = 4;
+
+        private int chunkSize = 500;
+
+        private int lockLeaseMinutes = 60;
+
+        public String getCron() {
+            return cron;
+        }
+
+        public void setCron(String cron) {
+            this.cron = cron;
+        }
+
+        public int getPartitions() {
+            return partitions;
+        }
+
+        public void setPartitions(int partitions) {
+            this.partitions = partitions;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getLockLeaseMinutes() {
+            return lockLeaseMinutes;
+        }
+
+        public void setLockLeaseMinutes(int lockLeaseMinutes) {
+            this.lockLeaseMinutes = lockLeaseMinutes;
+        }
+    }
+
+    public static class RentalSummary {
+
+        private int rebuildPartitions = 16;
+
+        private int rebuildThreads = 4;
+
+        public int getRebuildPartitions() {
+            return rebuildPartitions;
+        }
+
+        public void setRebuildPartitions(int rebuildPartitions) {
+            this.rebuildPartitions = rebuildPartitions;
+        }
+
+        public int getRebuildThreads() {
+            return rebuildThreads;
+        }
+
+        public void setRebuildThreads(int rebuildThreads) {
+            this.rebuildThreads = rebuildThreads;
+        }
+    }
+
+    public static class LoggingAspect {
+
+        private boolean enabled;
+
+        private int sampleRate = 1;
+
+        private int maxArgumentLength = 500;
+
+        private boolean timers = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(int sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public int getMaxArgumentLength() {
+            return maxArgumentLength;
+        }
+
+        public void setMaxArgumentLength(int maxArgumentLength) {
+            this.maxArgumentLength = maxArgumentLength;
+        }
+
+        public boolean isTimers() {
+            return timers;
+        }
+
+        public void setTimers(boolean timers) {
+            this.timers = timers;
+        }
+    }
+
+    public static class Audit {
+
+        private int queueCapacity = 10000;
+
+        private int batchSize = 100;
+
+        private long flushIntervalMs = 1000;
+
+        private String purgeCron = "0 0 2 * * ?";
+
+        private int purgeChunkSize = 1000;
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getFlushIntervalMs() {
+            return flushIntervalMs;
+        }
+
+        public void setFlushIntervalMs(long flushIntervalMs) {
+            this.flushIntervalMs = flushIntervalMs;
+        }
+
+        public String getPurgeCron() {
+            return purgeCron;
+        }
+
+        public void setPurgeCron(String purgeCron) {
+            this.purgeCron = purgeCron;
+        }
+
+        public int getPurgeChunkSize() {
+            return purgeChunkSize;
+        }
+
+        public void setPurgeChunkSize(int purgeChunkSize) {
+            this.purgeChunkSize = purgeChunkSize;
+        }
+    }
+
+    /**
+     * How concurrent commands on the same {@link com.my.rental.domain.Rental} are serialized.
+     */
+    public enum ConcurrencyMode {
+        /**
+         * Read without locking, check the rental version on commit and retry on conflict.
+         */
+        OPTIMISTIC,
+        /**
+         * Lock the rental row ({@code SELECT ... FOR UPDATE}) for the whole command.
+         */
+        PESSIMISTIC
+    }
 }
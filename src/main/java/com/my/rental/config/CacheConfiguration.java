@@ -1,5 +1,7 @@
 package com.my.rental.config;
 
+import com.my.rental.adaptor.BookInfoCache;
+import com.my.rental.service.RentalIdCache;
 import io.github.jhipster.config.JHipsterConstants;
 import io.github.jhipster.config.JHipsterProperties;
 
@@ -7,6 +9,12 @@ import com.hazelcast.config.*;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.Hazelcast;
 
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.HazelcastCacheMetrics;
+
+import org.hibernate.cache.spi.entry.CollectionCacheEntry;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,6 +36,7 @@ import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
 
 import javax.annotation.PreDestroy;
+import java.util.Map;
 
 @Configuration
 @EnableCaching
@@ -69,7 +78,7 @@ public class CacheConfiguration {
     }
 
     @Bean
-    public HazelcastInstance hazelcastInstance(JHipsterProperties jHipsterProperties) {
+    public HazelcastInstance hazelcastInstance(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         log.debug("Configuring Hazelcast");
         HazelcastInstance hazelCastInstance = Hazelcast.getHazelcastInstanceByName("rental");
         if (hazelCastInstance != null) {
@@ -109,14 +118,34 @@ public class CacheConfiguration {
                 }
             }
         }
-        config.getMapConfigs().put("default", initializeDefaultMapConfig(jHipsterProperties));
+        config.getMapConfigs().put("default", initializeDefaultMapConfig(jHipsterProperties, applicationProperties.getHibernateCache()));
 
         // Full reference is available at: https://docs.hazelcast.org/docs/management-center/3.9/manual/html/Deploying_and_Starting.html
         config.setManagementCenterConfig(initializeDefaultManagementCenterConfig(jHipsterProperties));
-        config.getMapConfigs().put("com.my.rental.domain.*", initializeDomainMapConfig(jHipsterProperties));
+        config.getMapConfigs().put("com.my.rental.domain.*", initializeDomainMapConfig(jHipsterProperties, applicationProperties.getHibernateCache()));
+        for (Map.Entry<String, ApplicationProperties.HibernateCache.Region> region : applicationProperties.getHibernateCache().getRegions().entrySet()) {
+            config.getMapConfigs().put(region.getKey(), initializeRegionMapConfig(jHipsterProperties, region.getKey(), region.getValue()));
+        }
+        config.getMapConfigs().put(BookInfoCache.MAP_NAME, initializeBookInfoMapConfig(applicationProperties.getBookInfoCache()));
+        config.getMapConfigs().put(RentalIdCache.MAP_NAME, initializeRentalIdMapConfig(applicationProperties.getRentalIdCache()));
+        config.setSerializationConfig(initializeSerializationConfig());
         return Hazelcast.newHazelcastInstance(config);
     }
 
+    /**
+     * Binary serialization of what this service stores in Hazelcast, instead of Java serialization: the entity
+     * cache entries already have a serializer of hazelcast-hibernate, the collection cache entries and the book
+     * infos get the ones below.
+     */
+    static SerializationConfig initializeSerializationConfig() {
+        SerializationConfig serializationConfig = new SerializationConfig();
+        serializationConfig.addDataSerializableFactory(RentalDataSerializableFactory.FACTORY_ID, new RentalDataSerializableFactory());
+        serializationConfig.addSerializerConfig(new SerializerConfig()
+            .setTypeClass(CollectionCacheEntry.class)
+            .setImplementation(new CollectionCacheEntrySerializer()));
+        return serializationConfig;
+    }
+
     private ManagementCenterConfig initializeDefaultManagementCenterConfig(JHipsterProperties jHipsterProperties) {
         ManagementCenterConfig managementCenterConfig = new ManagementCenterConfig();
         managementCenterConfig.setEnabled(jHipsterProperties.getCache().getHazelcast().getManagementCenter().isEnabled());
@@ -125,7 +154,7 @@ public class CacheConfiguration {
         return managementCenterConfig;
     }
 
-    private MapConfig initializeDefaultMapConfig(JHipsterProperties jHipsterProperties) {
+    private MapConfig initializeDefaultMapConfig(JHipsterProperties jHipsterProperties, ApplicationProperties.HibernateCache hibernateCache) {
         MapConfig mapConfig = new MapConfig();
 
         /*
@@ -145,19 +174,103 @@ public class CacheConfiguration {
         mapConfig.setEvictionPolicy(EvictionPolicy.LRU);
 
         /*
-        Maximum size of the map. When max size is reached,
+        Maximum number of entries of the map on each member. When max size is reached,
         map is evicted based on the policy defined.
-        Any integer between 0 and Integer.MAX_VALUE. 0 means
-        Integer.MAX_VALUE. Default is 0.
         */
-        mapConfig.setMaxSizeConfig(new MaxSizeConfig(0, MaxSizeConfig.MaxSizePolicy.USED_HEAP_SIZE));
+        mapConfig.setMaxSizeConfig(new MaxSizeConfig(hibernateCache.getDefaultMaxSize(), MaxSizeConfig.MaxSizePolicy.PER_NODE));
 
         return mapConfig;
     }
 
-    private MapConfig initializeDomainMapConfig(JHipsterProperties jHipsterProperties) {
+    private MapConfig initializeDomainMapConfig(JHipsterProperties jHipsterProperties, ApplicationProperties.HibernateCache hibernateCache) {
         MapConfig mapConfig = new MapConfig();
         mapConfig.setTimeToLiveSeconds(jHipsterProperties.getCache().getHazelcast().getTimeToLiveSeconds());
+        mapConfig.setEvictionPolicy(EvictionPolicy.LRU);
+        mapConfig.setMaxSizeConfig(new MaxSizeConfig(hibernateCache.getDefaultMaxSize(), MaxSizeConfig.MaxSizePolicy.PER_NODE));
+        return mapConfig;
+    }
+
+    private MapConfig initializeRegionMapConfig(JHipsterProperties jHipsterProperties, String regionName,
+                                                ApplicationProperties.HibernateCache.Region region) {
+        MapConfig mapConfig = new MapConfig(regionName);
+        int timeToLiveSeconds = region.getTimeToLiveSeconds() != null ? region.getTimeToLiveSeconds()
+            : jHipsterProperties.getCache().getHazelcast().getTimeToLiveSeconds();
+        mapConfig.setBackupCount(jHipsterProperties.getCache().getHazelcast().getBackupCount());
+        mapConfig.setTimeToLiveSeconds(timeToLiveSeconds);
+        mapConfig.setEvictionPolicy(EvictionPolicy.LRU);
+        mapConfig.setMaxSizeConfig(new MaxSizeConfig(region.getMaxSize(), MaxSizeConfig.MaxSizePolicy.PER_NODE));
+        if (region.isNearCache()) {
+            /*
+            The map keeps serialized entries (BINARY), which is the cheapest for remote gets and backups;
+            the near cache keeps the deserialized cache entries, including the ones owned by this member,
+            so a local hit costs no deserialization.
+            */
+            NearCacheConfig nearCacheConfig = new NearCacheConfig(regionName);
+            nearCacheConfig.setInMemoryFormat(InMemoryFormat.OBJECT);
+            nearCacheConfig.setInvalidateOnChange(true);
+            nearCacheConfig.setCacheLocalEntries(true);
+            nearCacheConfig.setTimeToLiveSeconds(timeToLiveSeconds);
+            nearCacheConfig.setEvictionConfig(new EvictionConfig(region.getMaxSize(),
+                EvictionConfig.MaxSizePolicy.ENTRY_COUNT, EvictionPolicy.LRU));
+            mapConfig.setNearCacheConfig(nearCacheConfig);
+        }
+        return mapConfig;
+    }
+
+    /**
+     * Statistics of the configured second-level cache regions and of the book info and rental id maps: entries, memory, gets,
+     * puts and, for the regions with a near cache, near cache hits, misses and evictions.
+     */
+    @Bean
+    public MeterBinder hazelcastMapMetrics(HazelcastInstance hazelcastInstance, ApplicationProperties applicationProperties) {
+        // Spring 캐시 메트릭과 같은 이름을 쓰므로 태그 키도 같아야 한다(Prometheus)
+        return meterRegistry -> {
+            for (String regionName : applicationProperties.getHibernateCache().getRegions().keySet()) {
+                HazelcastCacheMetrics.monitor(meterRegistry, hazelcastInstance.getMap(regionName),
+                    Tags.of("cacheManager", "hibernate", "name", regionName));
+            }
+            HazelcastCacheMetrics.monitor(meterRegistry, hazelcastInstance.getMap(BookInfoCache.MAP_NAME),
+                Tags.of("cacheManager", "hazelcastInstance", "name", BookInfoCache.MAP_NAME));
+            HazelcastCacheMetrics.monitor(meterRegistry, hazelcastInstance.getMap(RentalIdCache.MAP_NAME),
+                Tags.of("cacheManager", "hazelcastInstance", "name", RentalIdCache.MAP_NAME));
+        };
+    }
+
+    private MapConfig initializeBookInfoMapConfig(ApplicationProperties.BookInfoCache bookInfoCache) {
+        MapConfig mapConfig = new MapConfig(BookInfoCache.MAP_NAME);
+        mapConfig.setTimeToLiveSeconds(bookInfoCache.getTimeToLiveSeconds());
+        mapConfig.setEvictionPolicy(EvictionPolicy.LRU);
+        mapConfig.setMaxSizeConfig(new MaxSizeConfig(bookInfoCache.getMaxSize(), MaxSizeConfig.MaxSizePolicy.PER_NODE));
+
+        /*
+        Near cache: reads are served from deserialized objects in this JVM,
+        and entries changed or deleted on any member are invalidated.
+        */
+        NearCacheConfig nearCacheConfig = new NearCacheConfig(BookInfoCache.MAP_NAME);
+        nearCacheConfig.setInMemoryFormat(InMemoryFormat.OBJECT);
+        nearCacheConfig.setInvalidateOnChange(true);
+        nearCacheConfig.setCacheLocalEntries(true);
+        nearCacheConfig.setTimeToLiveSeconds(bookInfoCache.getTimeToLiveSeconds());
+        nearCacheConfig.setEvictionConfig(new EvictionConfig(bookInfoCache.getMaxSize(),
+            EvictionConfig.MaxSizePolicy.ENTRY_COUNT, EvictionPolicy.LRU));
+        mapConfig.setNearCacheConfig(nearCacheConfig);
+        return mapConfig;
+    }
+
+    private MapConfig initializeRentalIdMapConfig(ApplicationProperties.RentalIdCache rentalIdCache) {
+        MapConfig mapConfig = new MapConfig(RentalIdCache.MAP_NAME);
+        mapConfig.setTimeToLiveSeconds(rentalIdCache.getTimeToLiveSeconds());
+        mapConfig.setEvictionPolicy(EvictionPolicy.LRU);
+        mapConfig.setMaxSizeConfig(new MaxSizeConfig(rentalIdCache.getMaxSize(), MaxSizeConfig.MaxSizePolicy.PER_NODE));
+
+        NearCacheConfig nearCacheConfig = new NearCacheConfig(RentalIdCache.MAP_NAME);
+        nearCacheConfig.setInMemoryFormat(InMemoryFormat.OBJECT);
+        nearCacheConfig.setInvalidateOnChange(true);
+        nearCacheConfig.setCacheLocalEntries(true);
+        nearCacheConfig.setTimeToLiveSeconds(rentalIdCache.getTimeToLiveSeconds());
+        nearCacheConfig.setEvictionConfig(new EvictionConfig(rentalIdCache.getMaxSize(),
+            EvictionConfig.MaxSizePolicy.ENTRY_COUNT, EvictionPolicy.LRU));
+        mapConfig.setNearCacheConfig(nearCacheConfig);
         return mapConfig;
     }
 
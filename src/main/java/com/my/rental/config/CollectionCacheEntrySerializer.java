@@ -0,0 +1,102 @@
+package com.my.rental.config;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.StreamSerializer;
+import org.hibernate.cache.spi.entry.CollectionCacheEntry;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Writes the second-level cache entries of the collections, e.g. {@code Rental.rentedItems}, without Java
+ * serialization.
+ * <p>
+ * The state of a cached collection is the disassembled elements: for the bookId keyed maps of {@link
+ * com.my.rental.domain.Rental}, alternately the book id and the id of the item. When all of them are {@link Long}s,
+ * which is the case of every collection of this service, they are written as one {@code long[]}; anything else is
+ * written element by element with the Hazelcast serializers.
+ */
+public class CollectionCacheEntrySerializer implements StreamSerializer<CollectionCacheEntry> {
+
+    public static final int TYPE_ID = 1001;
+
+    private static final Constructor<CollectionCacheEntry> STATE_CONSTRUCTOR = stateConstructor();
+
+    @Override
+    public int getTypeId() {
+        return TYPE_ID;
+    }
+
+    @Override
+    public void write(ObjectDataOutput out, CollectionCacheEntry entry) throws IOException {
+        Serializable[] state = entry.getState();
+        long[] ids = toLongs(state);
+        out.writeBoolean(ids != null);
+        if (ids != null) {
+            out.writeLongArray(ids);
+            return;
+        }
+        out.writeInt(state.length);
+        for (Serializable element : state) {
+            out.writeObject(element);
+        }
+    }
+
+    @Override
+    public CollectionCacheEntry read(ObjectDataInput in) throws IOException {
+        Serializable[] state;
+        if (in.readBoolean()) {
+            long[] ids = in.readLongArray();
+            state = new Serializable[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                state[i] = ids[i];
+            }
+        } else {
+            state = new Serializable[in.readInt()];
+            for (int i = 0; i < state.length; i++) {
+                state[i] = in.readObject();
+            }
+        }
+        return create(state);
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+    /**
+     * Creates the cache entry of an already disassembled collection state.
+     */
+    static CollectionCacheEntry create(Serializable[] state) {
+        try {
+            return STATE_CONSTRUCTOR.newInstance((Serializable) state);
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Could not create a collection cache entry", e);
+        }
+    }
+
+    private static long[] toLongs(Serializable[] state) {
+        long[] ids = new long[state.length];
+        for (int i = 0; i < state.length; i++) {
+            if (!(state[i] instanceof Long)) {
+                return null;
+            }
+            ids[i] = (Long) state[i];
+        }
+        return ids;
+    }
+
+    private static Constructor<CollectionCacheEntry> stateConstructor() {
+        // Hibernate 는 상태만 받는 생성자를 공개하지 않는다(역직렬화 전용)
+        try {
+            Constructor<CollectionCacheEntry> constructor = CollectionCacheEntry.class.getDeclaredConstructor(Serializable.class);
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Unsupported Hibernate version", e);
+        }
+    }
+}
@@ -16,6 +16,23 @@ public class KafkaProperties {
 
     private Map<String, String> producer = new HashMap<>();
 
+    /*
+     * Throughput oriented producer defaults, used unless the same key is set in the "kafka.producer" map.
+     * A few milliseconds of linger lets the outbox relay fill a batch per partition, and the idempotent
+     * producer keeps the per-partition order while several batches are in flight.
+     */
+    private int producerLingerMs = 5;
+
+    private int producerBatchSize = 64 * 1024;
+
+    private String producerCompressionType = "lz4";
+
+    /*
+     * Number of BookConsumer threads, each with its own KafkaConsumer. Partitions are the unit of
+     * parallelism, so threads beyond the partition count of the topic stay idle. 0 disables the consumer.
+     */
+    private int consumerThreads = 1;
+
     public String getBootStrapServers() {
         return bootStrapServers;
     }
@@ -41,10 +58,47 @@ public class KafkaProperties {
         if (!properties.containsKey("bootstrap.servers")) {
             properties.put("bootstrap.servers", this.bootStrapServers);
         }
+        properties.putIfAbsent("linger.ms", this.producerLingerMs);
+        properties.putIfAbsent("batch.size", this.producerBatchSize);
+        properties.putIfAbsent("compression.type", this.producerCompressionType);
+        properties.putIfAbsent("acks", "all");
+        properties.putIfAbsent("enable.idempotence", true);
         return properties;
     }
 
     public void setProducer(Map<String, String> producer) {
         this.producer = producer;
     }
+
+    public int getConsumerThreads() {
+        return consumerThreads;
+    }
+
+    public void setConsumerThreads(int consumerThreads) {
+        this.consumerThreads = consumerThreads;
+    }
+
+    public int getProducerLingerMs() {
+        return producerLingerMs;
+    }
+
+    public void setProducerLingerMs(int producerLingerMs) {
+        this.producerLingerMs = producerLingerMs;
+    }
+
+    public int getProducerBatchSize() {
+        return producerBatchSize;
+    }
+
+    public void setProducerBatchSize(int producerBatchSize) {
+        this.producerBatchSize = producerBatchSize;
+    }
+
+    public String getProducerCompressionType() {
+        return producerCompressionType;
+    }
+
+    public void setProducerCompressionType(String producerCompressionType) {
+        this.producerCompressionType = producerCompressionType;
+    }
 }
@@ -0,0 +1,26 @@
+package com.my.rental.config;
+
+import com.hazelcast.nio.serialization.DataSerializableFactory;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.my.rental.adaptor.BookInfoCache;
+
+/**
+ * Creates the {@link IdentifiedDataSerializable} values stored in Hazelcast by this service, so that they are
+ * read back by type id, without reflection or class names on the wire.
+ */
+public class RentalDataSerializableFactory implements DataSerializableFactory {
+
+    public static final int FACTORY_ID = 1;
+
+    public static final int CACHED_BOOK_INFO = 1;
+
+    @Override
+    public IdentifiedDataSerializable create(int typeId) {
+        switch (typeId) {
+            case CACHED_BOOK_INFO:
+                return new BookInfoCache.CachedBookInfo();
+            default:
+                return null;
+        }
+    }
+}
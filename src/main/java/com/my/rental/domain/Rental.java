@@ -10,11 +10,12 @@ import javax.persistence.*;
 
 import java.io.Serializable;
 import java.time.LocalDate;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.HashMap;
+import java.util.Map;
 
 import com.my.rental.domain.enumeration.RentalStatus;
+import com.my.rental.domain.exception.BookAlreadyRentedException;
+import com.my.rental.domain.exception.RentalItemNotFoundException;
 
 /**
  * A Rental.
@@ -28,11 +29,15 @@ public class Rental implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    // 연체 도서 한 권당 부과되는 연체료
+    public static final long LATE_FEE_PER_BOOK = 30;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
     private Long id;
 
-    @Column(name = "user_id")
+    @Column(name = "user_id", unique = true)
     private Long userId;
 
     @Enumerated(EnumType.STRING)
@@ -42,17 +47,23 @@ public class Rental implements Serializable {
     @Column(name = "late_fee")
     private Long lateFee;
 
-    @OneToMany(mappedBy = "rental", cascade = CascadeType.ALL,orphanRemoval = true) // 고아 객체 제거 -> rental에서 컬렉션의 객체 삭제시, 해당 컬렉션의 entity삭제
-    @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
-    private Set<RentedItem> rentedItems = new HashSet<>();
+    // 같은 rental 에 대한 동시 대출/반납을 막기 위한 낙관적 락 버전
+    @Version
+    @Column(name = "version")
+    private Long version;
 
+    // 대출/연체 도서는 bookId 로 바로 찾을 수 있도록 bookId 를 키로 하는 Map 으로 매핑한다
     @OneToMany(mappedBy = "rental", cascade = CascadeType.ALL,orphanRemoval = true) // 고아 객체 제거 -> rental에서 컬렉션의 객체 삭제시, 해당 컬렉션의 entity삭제
+    @MapKey(name = "bookId")
     @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
-    private Set<OverdueItem> overdueItems = new HashSet<>();
+    private Map<Long, RentedItem> rentedItems = new HashMap<>();
 
     @OneToMany(mappedBy = "rental", cascade = CascadeType.ALL,orphanRemoval = true) // 고아 객체 제거 -> rental에서 컬렉션의 객체 삭제시, 해당 컬렉션의 entity삭제
+    @MapKey(name = "bookId")
     @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
-    private Set<ReturnedItem> returnedItems = new HashSet<>();
+    private Map<Long, OverdueItem> overdueItems = new HashMap<>();
+
+    // 반납 이력(ReturnedItem)은 계속 늘어나므로 rental 이 컬렉션으로 들고 있지 않고 ReturnedItemRepository 로 따로 저장/조회한다
 
     // jhipster-needle-entity-add-field - JHipster will add fields here, do not remove
     public Long getId() {
@@ -102,80 +113,60 @@ public class Rental implements Serializable {
         this.lateFee = lateFee;
     }
 
-    public Set<RentedItem> getRentedItems() {
+    public Map<Long, RentedItem> getRentedItems() {
         return rentedItems;
     }
 
-    public Rental rentedItems(Set<RentedItem> rentedItems) {
+    public Rental rentedItems(Map<Long, RentedItem> rentedItems) {
         this.rentedItems = rentedItems;
         return this;
     }
 
     public Rental addRentedItem(RentedItem rentedItem) {
-        this.rentedItems.add(rentedItem);
+        // 같은 도서의 대출 아이템을 덮어쓰지 않는다
+        if (this.rentedItems.containsKey(rentedItem.getBookId())) {
+            throw new BookAlreadyRentedException(rentedItem.getBookId());
+        }
+        this.rentedItems.put(rentedItem.getBookId(), rentedItem);
         rentedItem.setRental(this);
         return this;
     }
 
     public Rental removeRentedItem(RentedItem rentedItem) {
-        this.rentedItems.remove(rentedItem);
+        this.rentedItems.remove(rentedItem.getBookId());
         rentedItem.setRental(null);
         return this;
     }
 
-    public void setRentedItems(Set<RentedItem> rentedItems) {
+    public void setRentedItems(Map<Long, RentedItem> rentedItems) {
         this.rentedItems = rentedItems;
     }
 
-    public Set<OverdueItem> getOverdueItems() {
+    public Map<Long, OverdueItem> getOverdueItems() {
         return overdueItems;
     }
 
-    public Rental overdueItems(Set<OverdueItem> overdueItems) {
+    public Rental overdueItems(Map<Long, OverdueItem> overdueItems) {
         this.overdueItems = overdueItems;
         return this;
     }
 
     public Rental addOverdueItem(OverdueItem overdueItem) {
-        this.overdueItems.add(overdueItem);
+        this.overdueItems.put(overdueItem.getBookId(), overdueItem);
         overdueItem.setRental(this);
         return this;
     }
 
     public Rental removeOverdueItem(OverdueItem overdueItem) {
-        this.overdueItems.remove(overdueItem);
+        this.overdueItems.remove(overdueItem.getBookId());
         overdueItem.setRental(null);
         return this;
     }
 
-    public void setOverdueItems(Set<OverdueItem> overdueItems) {
+    public void setOverdueItems(Map<Long, OverdueItem> overdueItems) {
         this.overdueItems = overdueItems;
     }
 
-    public Set<ReturnedItem> getReturnedItems() {
-        return returnedItems;
-    }
-
-    public Rental returnedItems(Set<ReturnedItem> returnedItems) {
-        this.returnedItems = returnedItems;
-        return this;
-    }
-
-    public Rental addReturnedItem(ReturnedItem returnedItem) {
-        this.returnedItems.add(returnedItem);
-        returnedItem.setRental(this);
-        return this;
-    }
-
-    public Rental removeReturnedItem(ReturnedItem returnedItem) {
-        this.returnedItems.remove(returnedItem);
-        returnedItem.setRental(null);
-        return this;
-    }
-
-    public void setReturnedItems(Set<ReturnedItem> returnedItems) {
-        this.returnedItems = returnedItems;
-    }
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here, do not remove
 
     @Override
@@ -209,9 +200,8 @@ public class Rental implements Serializable {
         rental.setUserId(userId); // 사용자 일련번호 추가
         // 대출이 가능하도록 상태를 변경
         rental.setRentalStatus(RentalStatus.OK);
-        rental.setRentedItems(new HashSet<>());
-        rental.setOverdueItems(new HashSet<>());
-        rental.setReturnedItems(new HashSet<>());
+        rental.setRentedItems(new HashMap<>());
+        rental.setOverdueItems(new HashMap<>());
         rental.setLateFee((long)0); // 연체료 초기화
         return rental;
     }
@@ -219,20 +209,18 @@ public class Rental implements Serializable {
 
 
     //대여하기 메소드//
-//    public Rental rentBooks(List<Long> bookIds){
-//        if(checkRentalAvailable(bookIds.size())){
-//            for(Long bookId : bookIds){
-//                RentedItem rentedItem = RentedItem.createRentedItem(this, bookId, LocalDate.now());
-//                this.addRentedItem(rentedItem);
-//            }
-//            this.setRentalStatus(RentalStatus.RENTED);
-//            this.setLateFee((long)0);
-//            return this;
-//
-//        }else{
-//            return null;
-//        }
-//    }
+    // 여러 권을 한 번에 대출한다, 키는 도서 일련번호이고 값은 도서명이다
+    public Rental rentBooks(Map<Long, String> bookTitles){
+        // 일부만 추가된 채로 실패하지 않도록 먼저 모두 확인한다
+        for (Long bookId : bookTitles.keySet()) {
+            if (this.rentedItems.containsKey(bookId)) {
+                throw new BookAlreadyRentedException(bookId);
+            }
+        }
+        LocalDate rentedDate = LocalDate.now();
+        bookTitles.forEach((bookId, title) -> this.addRentedItem(RentedItem.createRentedItem(bookId, title, rentedDate)));
+        return this;
+    }
     //대출처리 메서드
     public Rental rentBook(Long bookId, String title){
         this.addRentedItem(RentedItem.createRentedItem(bookId,title,LocalDate.now()));
@@ -241,35 +229,24 @@ public class Rental implements Serializable {
 
     //반납 처리 메서드
     public Rental returnBooks(Long bookId){
-        RentedItem rentedItem = this.rentedItems
-            .stream()
-            .filter(item -> item.getBookId().equals(bookId)).findFirst().get(); // 대여한 책 들 중 해당 book id 를 갖는 대출도서를 찾는 stream 문법, 이때 findFirst 를 통해 가장 첫번째로 나오는 걸 꺼낸다.
+        RentedItem rentedItem = findRentedItem(bookId); // 대여한 책 들 중 해당 book id 를 갖는 대출도서를 찾는다
         this.removeRentedItem(rentedItem);
         return this;
     }
 
 
-//    //대출 가능 여부 체크
-//    public boolean checkRentalAvailable(Integer newBookCnt){
-//        if(this.rentalStatus!=RentalStatus.OVERDUE){
-//            if(this.rentedItems.size()+newBookCnt >5){
-//                System.out.println("대출 가능한 도서의 수는 "+( 5- this.getRentedItems().size())+"권 입니다.");
-//                return false;
-//            }else{
-//                return true;
-//            }
-//        }else{
-//            System.out.println("연체 상태입니다.");
-//            return false;
-//        }
-//    }
     //대출 가능 여부 체크 (초기 버전)
     public boolean checkRentalAvailable() throws Exception{
+        return checkRentalAvailable(1);
+    }
+
+    //새로 대출할 도서 수를 포함한 대출 가능 여부 체크
+    public boolean checkRentalAvailable(int newBookCnt) throws Exception{
         if(this.rentalStatus.equals(RentalStatus.RENT_AVAILABLE)||this.getLateFee()!=0){
             throw new Exception("연체 상태입니다. 연체료 정산후 도서를 대출하실 수 있습니다.");
 
         }
-        if (this.getRentedItems().size()>=5){
+        if (this.getRentedItems().size()+newBookCnt>5){
             throw new Exception("대출 가능 도서수는 " +(5-this.getRentedItems().size()) + "권 입니다");
         }
         return true;
@@ -277,9 +254,7 @@ public class Rental implements Serializable {
 
     // 연체 처리 메서드
     public Rental overdueBook(Long bookId){
-        RentedItem rentedItem = this.rentedItems
-            .stream()
-            .filter(item -> item.getBookId().equals(bookId)).findFirst().get();
+        RentedItem rentedItem = findRentedItem(bookId);
 
         this.addOverdueItem(OverdueItem.createOverdueItem(
                                         rentedItem.getBookId(),
@@ -291,24 +266,34 @@ public class Rental implements Serializable {
     }
 
     // 연체아이템 반납 처리 메서드
-    public Rental returnOverdueBook(Long bookId){
-        OverdueItem overdueItem = this.overdueItems
-            .stream()
-            .filter(item -> item.getBookId().equals(bookId)).findFirst().get();
+    // 새 반납 이력을 돌려주며, 호출한 쪽이 ReturnedItemRepository 로 저장한다
+    public ReturnedItem returnOverdueBook(Long bookId){
+        OverdueItem overdueItem = this.overdueItems.get(bookId);
+        if (overdueItem == null) {
+            throw new RentalItemNotFoundException("Overdue item", bookId);
+        }
 
-        this.addReturnedItem(ReturnedItem.createReturnedItem(
+        ReturnedItem returnedItem = ReturnedItem.createReturnedItem(
             overdueItem.getBookId(),
             overdueItem.getBookTitle(),
             LocalDate.now()
-        ));
+        ).rental(this);
         this.removeOverdueItem(overdueItem);
-        return this;
+        return returnedItem;
+    }
+
+    private RentedItem findRentedItem(Long bookId) {
+        RentedItem rentedItem = this.rentedItems.get(bookId);
+        if (rentedItem == null) {
+            throw new RentalItemNotFoundException("Rented item", bookId);
+        }
+        return rentedItem;
     }
 
     // 대출불가 처리 메서드
     public Rental makeRentUnable(){
         this.setRentalStatus(RentalStatus.RENT_UNAVAILABLE);
-        this.setLateFee(this.getLateFee()+30);
+        this.setLateFee(this.getLateFee()+LATE_FEE_PER_BOOK);
         return this;
     }
 
@@ -0,0 +1,65 @@
+package com.my.rental.domain;
+
+import com.my.rental.domain.enumeration.RentalStatus;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Read model of the {@link Rental} of a user: the number of rented and overdue books, the late fee, the status
+ * and the next due date, so that they can be served with one primary key lookup.
+ * <p>
+ * Rows are updated in the transaction of every rental command, and can be rebuilt from the item tables.
+ */
+@Entity
+@Table(name = "rental_summary")
+@Getter
+@Setter
+@ToString
+public class RentalSummary implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "rental_id", nullable = false, unique = true)
+    private Long rentalId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "rental_status")
+    private RentalStatus rentalStatus;
+
+    @Column(name = "late_fee", nullable = false)
+    private long lateFee;
+
+    @Column(name = "rented_count", nullable = false)
+    private int rentedCount;
+
+    @Column(name = "overdue_count", nullable = false)
+    private int overdueCount;
+
+    @Column(name = "next_due_date")
+    private LocalDate nextDueDate;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RentalSummary)) {
+            return false;
+        }
+        return userId != null && userId.equals(((RentalSummary) o).userId);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+}
@@ -1,6 +1,5 @@
 package com.my.rental.domain;
 
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Data;
 import lombok.ToString;
 import org.hibernate.annotations.Cache;
@@ -20,7 +19,8 @@ public class ReturnedItem implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
     private Long id;
 
     @Column(name = "book_id")
@@ -33,7 +33,6 @@ public class ReturnedItem implements Serializable {
     private String bookTitle;
 
     @ManyToOne
-    @JsonIgnoreProperties("returnedItems")
     private Rental rental;
 
     public static ReturnedItem createReturnedItem(Long bookId, String bookTitle, LocalDate now) {
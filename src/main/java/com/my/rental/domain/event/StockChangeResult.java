@@ -0,0 +1,25 @@
+package com.my.rental.domain.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// 도서 서비스가 StockChanged 이벤트를 처리한 결과
+// 실패(FAILURE)한 대출은 보상 트랜잭션으로 취소된다
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockChangeResult {
+    public static final String SUCCESS = "SUCCESS";
+    public static final String FAILURE = "FAILURE";
+
+    private Long bookId;
+    private String bookStatus;
+    private String result;
+
+    public boolean isFailure() {
+        return FAILURE.equals(result);
+    }
+}
@@ -0,0 +1,20 @@
+package com.my.rental.domain.exception;
+
+/**
+ * Thrown when a {@link com.my.rental.domain.Rental} is asked to rent a book it already holds.
+ */
+public class BookAlreadyRentedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long bookId;
+
+    public BookAlreadyRentedException(Long bookId) {
+        super("Book " + bookId + " is already rented");
+        this.bookId = bookId;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+}
@@ -0,0 +1,21 @@
+package com.my.rental.domain.exception;
+
+/**
+ * Thrown when a {@link com.my.rental.domain.Rental} holds no item for the requested book,
+ * e.g. when returning a book that is not rented or not overdue.
+ */
+public class RentalItemNotFoundException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long bookId;
+
+    public RentalItemNotFoundException(String itemType, Long bookId) {
+        super(itemType + " not found for book " + bookId);
+        this.bookId = bookId;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+}
@@ -0,0 +1,226 @@
+package com.my.rental.repository;
+
+import com.my.rental.config.ApplicationProperties;
+import com.my.rental.config.audit.AuditEventConverter;
+import com.my.rental.domain.PersistentAuditEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.audit.AuditEvent;
+import org.springframework.boot.actuate.audit.AuditEventRepository;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An implementation of Spring Boot's {@link AuditEventRepository} that writes the events asynchronously.
+ * <p>
+ * {@link #add(AuditEvent)} only converts the event and offers it to a bounded queue, {@code queue-capacity} events
+ * long: when the queue is full the event is dropped and counted. A background thread takes the events in batches of
+ * up to {@code batch-size} and writes the events and their data with two JDBC batch inserts in one transaction. The
+ * ids come from the shared {@code sequence_generator} in blocks of {@value #ID_ALLOCATION_SIZE}, the same pooled-lo
+ * allocation Hibernate uses for the other entities.
+ */
+@Repository
+public class CustomAuditEventRepository implements AuditEventRepository {
+
+    private static final String AUTHORIZATION_FAILURE = "AUTHORIZATION_FAILURE";
+
+    private static final String ANONYMOUS_USER = "anonymoususer";
+
+    /**
+     * Should be the same as in Liquibase changelog.
+     */
+    private static final int PRINCIPAL_MAX_LENGTH = 50;
+    private static final int EVENT_TYPE_MAX_LENGTH = 255;
+    private static final int EVENT_DATA_NAME_MAX_LENGTH = 150;
+    private static final int EVENT_DATA_COLUMN_MAX_LENGTH = 255;
+
+    /**
+     * Should be the same as the increment of the sequence and the allocationSize of the entities.
+     */
+    static final int ID_ALLOCATION_SIZE = 50;
+
+    private static final String INSERT_EVENT = "insert into jhi_persistent_audit_event" +
+        " (event_id, principal, event_date, event_type) values (?, ?, ?, ?)";
+    private static final String INSERT_EVENT_DATA = "insert into jhi_persistent_audit_evt_data" +
+        " (event_id, name, value) values (?, ?, ?)";
+    private static final String NEXT_ID_BLOCK = "select next value for sequence_generator";
+
+    private final Logger log = LoggerFactory.getLogger(CustomAuditEventRepository.class);
+
+    private final PersistenceAuditEventRepository persistenceAuditEventRepository;
+    private final AuditEventConverter auditEventConverter;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationProperties.Audit properties;
+    private final BlockingQueue<PendingAuditEvent> queue;
+
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+
+    private Thread writer;
+    private volatile boolean running;
+
+    // 쓰기 스레드만 사용한다
+    private long nextId;
+    private long lastIdOfBlock = -1;
+
+    public CustomAuditEventRepository(PersistenceAuditEventRepository persistenceAuditEventRepository,
+                                      AuditEventConverter auditEventConverter, DataSource dataSource,
+                                      PlatformTransactionManager transactionManager,
+                                      ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.persistenceAuditEventRepository = persistenceAuditEventRepository;
+        this.auditEventConverter = auditEventConverter;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = applicationProperties.getAudit();
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.writtenCounter = meterRegistry.counter("rental.audit.events", "result", "written");
+        this.droppedCounter = meterRegistry.counter("rental.audit.events", "result", "dropped");
+        this.failedCounter = meterRegistry.counter("rental.audit.events", "result", "failed");
+        Gauge.builder("rental.audit.queue", queue, BlockingQueue::size)
+            .description("Number of audit events waiting to be written")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new CustomizableThreadFactory("audit-writer-").newThread(this::writeLoop);
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // 큐에 남은 이벤트를 모두 쓰고 끝낸다
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        if (writer.isAlive()) {
+            log.warn("Audit event writer did not terminate, {} events dropped", queue.size());
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AuditEvent> find(String principal, Instant after, String type) {
+        Iterable<PersistentAuditEvent> persistentAuditEvents =
+            persistenceAuditEventRepository.findByPrincipalAndAuditEventDateAfterAndAuditEventType(principal, after, type);
+        return auditEventConverter.convertToAuditEvent(persistentAuditEvents);
+    }
+
+    @Override
+    public void add(AuditEvent event) {
+        if (AUTHORIZATION_FAILURE.equals(event.getType()) || ANONYMOUS_USER.equalsIgnoreCase(event.getPrincipal())) {
+            return;
+        }
+        // 데이터는 요청 객체를 참조할 수 있으므로 요청 스레드에서 문자열로 바꿔 둔다
+        Map<String, String> data = auditEventConverter.convertDataToStrings(event.getData());
+        if (!queue.offer(new PendingAuditEvent(event.getPrincipal(), event.getTimestamp(), event.getType(), data))) {
+            droppedCounter.increment();
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingAuditEvent> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingAuditEvent first = running ? queue.poll(properties.getFlushIntervalMs(), TimeUnit.MILLISECONDS) : queue.poll();
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                // 종료 요청: running 이 false 이면 남은 이벤트를 기다리지 않고 쓴다
+                continue;
+            } catch (RuntimeException e) {
+                log.warn("Could not write {} audit events: {}", batch.size(), e.getMessage());
+                failedCounter.increment(batch.size());
+            }
+            batch.clear();
+        }
+    }
+
+    private void write(List<PendingAuditEvent> batch) {
+        transactionTemplate.execute(status -> {
+            List<Object[]> events = new ArrayList<>(batch.size());
+            List<Object[]> data = new ArrayList<>();
+            for (PendingAuditEvent event : batch) {
+                long id = nextId();
+                events.add(new Object[]{id, truncate(event.principal, PRINCIPAL_MAX_LENGTH), event.timestamp,
+                    truncate(event.type, EVENT_TYPE_MAX_LENGTH)});
+                for (Map.Entry<String, String> entry : event.data.entrySet()) {
+                    data.add(new Object[]{id, truncate(entry.getKey(), EVENT_DATA_NAME_MAX_LENGTH),
+                        truncate(entry.getValue(), EVENT_DATA_COLUMN_MAX_LENGTH)});
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERT_EVENT, events, events.size(), (ps, event) -> {
+                ps.setLong(1, (Long) event[0]);
+                ps.setString(2, (String) event[1]);
+                // Hibernate 와 같이 UTC 로 쓴다 (hibernate.jdbc.time_zone)
+                ps.setTimestamp(3, Timestamp.from((Instant) event[2]), Calendar.getInstance(TimeZone.getTimeZone("UTC")));
+                ps.setString(4, (String) event[3]);
+            });
+            if (!data.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_EVENT_DATA, data);
+            }
+            return null;
+        });
+        writtenCounter.increment(batch.size());
+    }
+
+    private long nextId() throws DataAccessException {
+        if (nextId > lastIdOfBlock) {
+            nextId = jdbcTemplate.queryForObject(NEXT_ID_BLOCK, Long.class);
+            lastIdOfBlock = nextId + ID_ALLOCATION_SIZE - 1;
+        }
+        return nextId++;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    /**
+     * An audit event converted on the calling thread, waiting to be written.
+     */
+    private static final class PendingAuditEvent {
+
+        private final String principal;
+        private final Instant timestamp;
+        private final String type;
+        private final Map<String, String> data;
+
+        private PendingAuditEvent(String principal, Instant timestamp, String type, Map<String, String> data) {
+            this.principal = principal;
+            this.timestamp = timestamp;
+            this.type = type;
+            this.data = data;
+        }
+    }
+}
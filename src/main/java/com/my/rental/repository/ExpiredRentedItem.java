@@ -0,0 +1,20 @@
+package com.my.rental.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Projection of a {@link com.my.rental.domain.RentedItem} past its due date, read by the overdue job
+ * without loading the item or its rental.
+ */
+public interface ExpiredRentedItem {
+
+    Long getId();
+
+    Long getBookId();
+
+    String getBookTitle();
+
+    LocalDate getDueDate();
+
+    Long getRentalId();
+}
@@ -0,0 +1,14 @@
+package com.my.rental.repository;
+
+import com.my.rental.domain.OverdueItem;
+
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data  repository for the OverdueItem entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface OverdueItemRepository extends JpaRepository<OverdueItem, Long> {
+}
@@ -0,0 +1,44 @@
+package com.my.rental.repository;
+
+import com.my.rental.domain.PersistentAuditEvent;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for the {@link PersistentAuditEvent} entity.
+ * <p>
+ * Events are written in JDBC batches by the {@link CustomAuditEventRepository}; this repository reads them and
+ * purges the old ones.
+ */
+@Repository
+public interface PersistenceAuditEventRepository extends JpaRepository<PersistentAuditEvent, Long> {
+
+    List<PersistentAuditEvent> findByPrincipal(String principal);
+
+    List<PersistentAuditEvent> findByPrincipalAndAuditEventDateAfterAndAuditEventType(String principal, Instant after, String type);
+
+    @Query("select distinct e.principal from PersistentAuditEvent e")
+    List<String> findAllPrincipals();
+
+    /**
+     * Reads the ids of the events of a principal older than a date: a range scan on the
+     * {@code (principal, event_date)} index.
+     */
+    @Query("select e.id from PersistentAuditEvent e where e.principal = :principal and e.auditEventDate < :before order by e.auditEventDate")
+    List<Long> findIdsByPrincipalBefore(@Param("principal") String principal, @Param("before") Instant before, Pageable pageable);
+
+    @Modifying
+    @Query(value = "delete from jhi_persistent_audit_evt_data where event_id in :ids", nativeQuery = true)
+    int deleteDataByEventIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from PersistentAuditEvent e where e.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
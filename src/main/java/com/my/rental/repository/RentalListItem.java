@@ -0,0 +1,44 @@
+package com.my.rental.repository;
+
+import com.my.rental.domain.enumeration.RentalStatus;
+
+/**
+ * The columns of a {@link com.my.rental.domain.Rental} shown in listings, built by a JPQL constructor expression
+ * without a managed entity, its item collections or a second-level cache entry.
+ * <p>
+ * A class rather than an interface projection: Spring Data backs interface projections with a proxy over a tuple,
+ * which allocates more per row than the entity it replaces.
+ */
+public class RentalListItem {
+
+    private final Long id;
+
+    private final Long userId;
+
+    private final RentalStatus rentalStatus;
+
+    private final Long version;
+
+    public RentalListItem(Long id, Long userId, RentalStatus rentalStatus, Long version) {
+        this.id = id;
+        this.userId = userId;
+        this.rentalStatus = rentalStatus;
+        this.version = version;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public RentalStatus getRentalStatus() {
+        return rentalStatus;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+}
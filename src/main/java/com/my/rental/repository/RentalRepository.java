@@ -1,12 +1,21 @@
 package com.my.rental.repository;
 
 import com.my.rental.domain.Rental;
+import com.my.rental.domain.enumeration.RentalStatus;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Spring Data  repository for the Rental entity.
@@ -14,5 +23,73 @@ import java.util.Optional;
 @SuppressWarnings("unused")
 @Repository
 public interface RentalRepository extends JpaRepository<Rental, Long> {
+
+    String STREAM_FETCH_SIZE = "500";
+
     Optional<Rental> findByUserId(Long userId);
+
+    /**
+     * The id of the rental of a user, read from the unique index on user_id without loading the rental.
+     */
+    @Query("select r.id from Rental r where r.userId = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
+
+    /**
+     * A page of rentals read as {@link RentalListItem} values, so that no entity is hydrated, dirty checked or cached.
+     */
+    @Query(value = "select new com.my.rental.repository.RentalListItem(r.id, r.userId, r.rentalStatus, r.version) from Rental r",
+        countQuery = "select count(r) from Rental r")
+    Page<RentalListItem> findAllListItems(Pageable pageable);
+
+    /**
+     * Keyset pagination: the rentals after an id, read with an index seek on the primary key and without a count query.
+     */
+    Slice<Rental> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Streams the rentals, optionally of one status, in id order. The rows are fetched from a forward-only
+     * cursor {@value #STREAM_FETCH_SIZE} at a time; the stream must be consumed and closed in a transaction.
+     */
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = STREAM_FETCH_SIZE),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+        @QueryHint(name = "org.hibernate.cacheable", value = "false")
+    })
+    @Query("select r from Rental r where (:rentalStatus is null or r.rentalStatus = :rentalStatus) order by r.id")
+    Stream<Rental> streamAll(@Param("rentalStatus") RentalStatus rentalStatus);
+
+    /**
+     * Loads the rental of a user and increments its version on commit, even when only its items changed,
+     * so two concurrent commands on the same rental cannot both commit.
+     */
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("select r from Rental r where r.userId = :userId")
+    Optional<Rental> findByUserIdForIncrement(@Param("userId") Long userId);
+
+    /**
+     * Loads the rental of a user with {@code SELECT ... FOR UPDATE}, the row stays locked until the end of the transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "5000"))
+    @Query("select r from Rental r where r.userId = :userId")
+    Optional<Rental> findByUserIdForUpdate(@Param("userId") Long userId);
+
+    /**
+     * Locks rentals with {@code SELECT ... FOR UPDATE} until the end of the transaction, in id order so that
+     * two transactions locking overlapping rentals cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "5000"))
+    @Query("select r from Rental r where r.id in :ids order by r.id")
+    List<Rental> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Sets the status of rentals and adds to their late fee in one statement. The version is incremented so
+     * that commands which read the rentals before fail on commit.
+     */
+    @Modifying
+    @Query("update Rental r set r.rentalStatus = :rentalStatus, r.lateFee = r.lateFee + :lateFee, r.version = r.version + 1" +
+        " where r.id in :ids")
+    int updateStatusAndAddLateFee(@Param("ids") Collection<Long> ids, @Param("rentalStatus") RentalStatus rentalStatus,
+                                  @Param("lateFee") Long lateFee);
 }
@@ -0,0 +1,83 @@
+package com.my.rental.repository;
+
+import com.my.rental.domain.RentalSummary;
+import com.my.rental.domain.enumeration.RentalStatus;
+
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Spring Data  repository for the RentalSummary read model.
+ * <p>
+ * The rental commands change the rows with update statements carrying the change, without reading them first.
+ * Rows are deleted with their rental by the foreign key.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface RentalSummaryRepository extends JpaRepository<RentalSummary, Long> {
+
+    /**
+     * Recomputes the summary rows of rentals from the item tables; callers append the rentals to compute.
+     */
+    String INSERT_FROM_ITEM_TABLES = "insert into rental_summary" +
+        " (user_id, rental_id, rental_status, late_fee, rented_count, overdue_count, next_due_date)" +
+        " select r.user_id, r.id, r.rental_status, coalesce(r.late_fee, 0)," +
+        " (select count(*) from rented_item i where i.rental_id = r.id)," +
+        " (select count(*) from overdue_item o where o.rental_id = r.id)," +
+        " (select min(i.due_date) from rented_item i where i.rental_id = r.id)" +
+        " from rental r where r.user_id is not null";
+
+    @Query("select coalesce(sum(case when s.rentedCount > 0 or s.overdueCount > 0 then 1 else 0 end), 0) as activeRentals," +
+        " coalesce(sum(s.overdueCount), 0) as overdueItems, coalesce(sum(s.lateFee), 0) as lateFees from RentalSummary s")
+    RentalTotals findTotals();
+
+    @Modifying
+    @Query("update RentalSummary s set s.rentedCount = s.rentedCount + :rentedDelta, s.overdueCount = s.overdueCount + :overdueDelta," +
+        " s.nextDueDate = :nextDueDate, s.rentalStatus = :rentalStatus, s.lateFee = :lateFee where s.userId = :userId")
+    int applyItemChanges(@Param("userId") Long userId, @Param("rentedDelta") int rentedDelta, @Param("overdueDelta") int overdueDelta,
+                         @Param("nextDueDate") LocalDate nextDueDate, @Param("rentalStatus") RentalStatus rentalStatus,
+                         @Param("lateFee") long lateFee);
+
+    @Modifying
+    @Query("update RentalSummary s set s.overdueCount = s.overdueCount + :overdueDelta, s.rentalStatus = :rentalStatus," +
+        " s.lateFee = :lateFee where s.userId = :userId")
+    int applyOverdueChanges(@Param("userId") Long userId, @Param("overdueDelta") int overdueDelta,
+                            @Param("rentalStatus") RentalStatus rentalStatus, @Param("lateFee") long lateFee);
+
+    /**
+     * Moves the summary row of a rental to the user the rental now belongs to. The user id is the primary key,
+     * so the row is updated with a native statement.
+     */
+    @Modifying
+    @Query(value = "update rental_summary set user_id = :userId where rental_id = :rentalId and user_id <> :userId",
+        nativeQuery = true)
+    int moveToUser(@Param("rentalId") Long rentalId, @Param("userId") Long userId);
+
+    /**
+     * Moves {@code count} items of each rental from rented to overdue, after the items have been moved in the item
+     * tables: the next due date is read again from the remaining rented items.
+     */
+    @Modifying
+    @Query("update RentalSummary s set s.rentedCount = s.rentedCount - :count, s.overdueCount = s.overdueCount + :count," +
+        " s.lateFee = s.lateFee + :lateFee, s.rentalStatus = :rentalStatus," +
+        " s.nextDueDate = (select min(i.dueDate) from RentedItem i where i.rental.id = s.rentalId) where s.rentalId in :rentalIds")
+    int applyExpiredItems(@Param("rentalIds") Collection<Long> rentalIds, @Param("count") int count,
+                          @Param("lateFee") long lateFee, @Param("rentalStatus") RentalStatus rentalStatus);
+
+    @Modifying
+    @Query(value = INSERT_FROM_ITEM_TABLES + " and r.id in :rentalIds" +
+        " and not exists (select 1 from rental_summary s where s.rental_id = r.id)", nativeQuery = true)
+    int insertMissing(@Param("rentalIds") Collection<Long> rentalIds);
+
+    @Modifying
+    @Query(value = "delete from rental_summary where mod(rental_id, :partitions) = :partition", nativeQuery = true)
+    int deletePartition(@Param("partitions") int partitions, @Param("partition") int partition);
+
+    @Modifying
+    @Query(value = INSERT_FROM_ITEM_TABLES + " and mod(r.id, :partitions) = :partition", nativeQuery = true)
+    int insertPartition(@Param("partitions") int partitions, @Param("partition") int partition);
+}
@@ -0,0 +1,16 @@
+package com.my.rental.repository;
+
+/**
+ * Projection of the totals of the {@link com.my.rental.domain.RentalSummary} read model over all the users.
+ */
+public interface RentalTotals {
+
+    /**
+     * @return the number of rentals holding rented or overdue books.
+     */
+    Long getActiveRentals();
+
+    Long getOverdueItems();
+
+    Long getLateFees();
+}
@@ -1,14 +1,71 @@
 package com.my.rental.repository;
 
 import com.my.rental.domain.RentedItem;
+import com.my.rental.domain.enumeration.RentalStatus;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 /**
  * Spring Data  repository for the RentedItem entity.
  */
 @SuppressWarnings("unused")
 @Repository
 public interface RentedItemRepository extends JpaRepository<RentedItem, Long> {
+    Optional<RentedItem> findByBookId(Long bookId);
+
+    /**
+     * Keyset pagination: the rented items after an id, read with an index seek on the primary key and without a count query.
+     */
+    Slice<RentedItem> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Streams the rented items with their rental, optionally due in a date range and of rentals of one status,
+     * in id order. The rows are fetched from a forward-only cursor; the stream must be consumed and closed
+     * in a transaction.
+     */
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = RentalRepository.STREAM_FETCH_SIZE),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+        @QueryHint(name = "org.hibernate.cacheable", value = "false")
+    })
+    @Query("select r from RentedItem r left join fetch r.rental rental" +
+        " where (:dueFrom is null or r.dueDate >= :dueFrom) and (:dueTo is null or r.dueDate <= :dueTo)" +
+        " and (:rentalStatus is null or rental.rentalStatus = :rentalStatus) order by r.id")
+    Stream<RentedItem> streamAll(@Param("dueFrom") LocalDate dueFrom, @Param("dueTo") LocalDate dueTo,
+                                 @Param("rentalStatus") RentalStatus rentalStatus);
+
+    /**
+     * Reads the next chunk of items due before {@code today}, after the ({@code afterDueDate}, {@code afterId})
+     * keyset, in one of the {@code partitions} partitions of the rentals.
+     */
+    @Query("select r.id as id, r.bookId as bookId, r.bookTitle as bookTitle, r.dueDate as dueDate, r.rental.id as rentalId" +
+        " from RentedItem r where r.dueDate < :today and mod(r.rental.id, :partitions) = :partition" +
+        " and (r.dueDate > :afterDueDate or (r.dueDate = :afterDueDate and r.id > :afterId))" +
+        " order by r.dueDate, r.id")
+    List<ExpiredRentedItem> findExpired(@Param("today") LocalDate today, @Param("partitions") int partitions,
+                                        @Param("partition") int partition, @Param("afterDueDate") LocalDate afterDueDate,
+                                        @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Reads again the items of a chunk read by {@link #findExpired}, the ones returned since are absent.
+     */
+    @Query("select r.id as id, r.bookId as bookId, r.bookTitle as bookTitle, r.dueDate as dueDate, r.rental.id as rentalId" +
+        " from RentedItem r where r.id in :ids")
+    List<ExpiredRentedItem> findExpiredByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from RentedItem r where r.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,20 @@
+package com.my.rental.repository;
+
+import com.my.rental.domain.ReturnedItem;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data  repository for the ReturnedItem entity.
+ * <p>
+ * Returned items are an append-only history: they are saved once, when an overdue book is returned,
+ * and only read afterwards, page by page.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface ReturnedItemRepository extends JpaRepository<ReturnedItem, Long> {
+    Page<ReturnedItem> findByRentalId(Long rentalId, Pageable pageable);
+}
@@ -1,8 +1,12 @@
 package com.my.rental.security.jwt;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
 
@@ -28,8 +32,18 @@ public class TokenProvider {
 
     private static final String AUTHORITIES_KEY = "auth";
 
+    private static final int MAX_CACHED_AUTHENTICATIONS = 10000;
+
+    private static final int MAX_AUTHORITIES_CLAIMS = 100;
+
+    private final Map<ByteBuffer, CachedAuthentication> authentications = new ConcurrentHashMap<>();
+
+    private final Map<String, List<GrantedAuthority>> authoritiesByClaim = new ConcurrentHashMap<>();
+
     private Key key;
 
+    private JwtParser jwtParser;
+
     private long tokenValidityInMilliseconds;
 
     private long tokenValidityInMillisecondsForRememberMe;
@@ -53,6 +67,8 @@ public class TokenProvider {
             keyBytes = Decoders.BASE64.decode(jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret());
         }
         this.key = Keys.hmacShaKeyFor(keyBytes);
+        // 파서는 불변이고 스레드 안전하므로 한 번만 만든다(만들 때마다 직렬화 모듈을 다시 찾는다)
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(key).build();
         this.tokenValidityInMilliseconds =
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSeconds();
         this.tokenValidityInMillisecondsForRememberMe =
@@ -82,30 +98,117 @@ public class TokenProvider {
     }
 
     public Authentication getAuthentication(String token) {
-        Claims claims = Jwts.parserBuilder()
-            .setSigningKey(key)
-            .build()
-            .parseClaimsJws(token)
-            .getBody();
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        return toAuthentication(claims, token);
+    }
 
-        Collection<? extends GrantedAuthority> authorities =
-            Arrays.stream(claims.get(AUTHORITIES_KEY).toString().split(","))
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
+    /**
+     * Validates a token and returns its authentication, verifying the signature only once. The authentications of
+     * verified tokens are kept, by SHA-256 of the token, until the token expires, so the following requests with the
+     * same token are not verified again. Only the subject and the authorities are kept: every call returns a new
+     * authentication, so that a request changing its authentication does not affect the others.
+     *
+     * @param token the JWT.
+     * @return the authentication, or {@code null} if the token is not valid.
+     */
+    public Authentication resolveAuthentication(String token) {
+        ByteBuffer tokenHash = hash(token);
+        CachedAuthentication cached = authentications.get(tokenHash);
+        if (cached != null) {
+            if (cached.expiresAt > System.currentTimeMillis()) {
+                return newAuthentication(cached.subject, cached.authorities, token);
+            }
+            authentications.remove(tokenHash, cached);
+        }
+        Claims claims = parseClaims(token);
+        if (claims == null) {
+            return null;
+        }
+        Collection<GrantedAuthority> authorities = parseAuthorities(claims.get(AUTHORITIES_KEY).toString());
+        if (claims.getExpiration() != null) {
+            cache(tokenHash, new CachedAuthentication(claims.getSubject(), authorities, claims.getExpiration().getTime()));
+        }
+        return newAuthentication(claims.getSubject(), authorities, token);
+    }
 
-        User principal = new User(claims.getSubject(), "", authorities);
+    public boolean validateToken(String authToken) {
+        return parseClaims(authToken) != null;
+    }
 
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+    void clearAuthenticationCache() {
+        authentications.clear();
     }
 
-    public boolean validateToken(String authToken) {
+    private Claims parseClaims(String authToken) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(authToken);
-            return true;
+            return jwtParser.parseClaimsJws(authToken).getBody();
         } catch (JwtException | IllegalArgumentException e) {
             log.info("Invalid JWT token.");
             log.trace("Invalid JWT token trace.", e);
         }
-        return false;
+        return null;
+    }
+
+    private Authentication toAuthentication(Claims claims, String token) {
+        Collection<GrantedAuthority> authorities = parseAuthorities(claims.get(AUTHORITIES_KEY).toString());
+
+        return newAuthentication(claims.getSubject(), authorities, token);
+    }
+
+    private static Authentication newAuthentication(String subject, Collection<GrantedAuthority> authorities, String token) {
+        User principal = new User(subject, "", authorities);
+
+        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+    }
+
+    /**
+     * The authorities of an "auth" claim. There are only a few distinct claims, so their authority lists are built
+     * once and shared.
+     */
+    private Collection<GrantedAuthority> parseAuthorities(String authoritiesClaim) {
+        List<GrantedAuthority> authorities = authoritiesByClaim.get(authoritiesClaim);
+        if (authorities != null) {
+            return authorities;
+        }
+        authorities = Collections.unmodifiableList(Arrays.stream(authoritiesClaim.split(","))
+            .map(SimpleGrantedAuthority::new)
+            .collect(Collectors.toList()));
+        if (authoritiesByClaim.size() < MAX_AUTHORITIES_CLAIMS) {
+            authoritiesByClaim.putIfAbsent(authoritiesClaim, authorities);
+        }
+        return authorities;
+    }
+
+    private void cache(ByteBuffer tokenHash, CachedAuthentication cachedAuthentication) {
+        if (authentications.size() >= MAX_CACHED_AUTHENTICATIONS) {
+            // 만료된 항목부터 지우고, 그래도 가득 차 있으면 모두 비운다
+            long now = System.currentTimeMillis();
+            authentications.values().removeIf(entry -> entry.expiresAt <= now);
+            if (authentications.size() >= MAX_CACHED_AUTHENTICATIONS) {
+                authentications.clear();
+            }
+        }
+        authentications.put(tokenHash, cachedAuthentication);
+    }
+
+    private static ByteBuffer hash(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class CachedAuthentication {
+
+        private final String subject;
+        private final Collection<GrantedAuthority> authorities;
+        private final long expiresAt;
+
+        private CachedAuthentication(String subject, Collection<GrantedAuthority> authorities, long expiresAt) {
+            this.subject = subject;
+            this.authorities = authorities;
+            this.expiresAt = expiresAt;
+        }
     }
 }
@@ -0,0 +1,83 @@
+package com.my.rental.service;
+
+import com.my.rental.config.ApplicationProperties;
+import com.my.rental.repository.PersistenceAuditEventRepository;
+import io.github.jhipster.config.JHipsterProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Service for managing audit events.
+ * <p>
+ * The old events are purged {@code purge-chunk-size} events per transaction, principal by principal, so that every
+ * chunk is a range scan on the {@code (principal, event_date)} index and no transaction holds many row locks. Every
+ * node of the cluster runs the purge; a chunk already deleted by another node deletes nothing.
+ */
+@Service
+public class AuditEventService {
+
+    private final Logger log = LoggerFactory.getLogger(AuditEventService.class);
+
+    private final JHipsterProperties jHipsterProperties;
+    private final PersistenceAuditEventRepository persistenceAuditEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationProperties.Audit properties;
+
+    public AuditEventService(PersistenceAuditEventRepository persistenceAuditEventRepository,
+                             JHipsterProperties jHipsterProperties, PlatformTransactionManager transactionManager,
+                             ApplicationProperties applicationProperties) {
+        this.persistenceAuditEventRepository = persistenceAuditEventRepository;
+        this.jHipsterProperties = jHipsterProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = applicationProperties.getAudit();
+    }
+
+    /**
+     * Old audit events should be automatically deleted after 30 days.
+     *
+     * This is scheduled to get fired at 2:00 (am) by default.
+     */
+    @Scheduled(cron = "${application.audit.purge-cron:0 0 2 * * ?}")
+    public void removeOldAuditEvents() {
+        Instant before = Instant.now().minus(jHipsterProperties.getAuditEvents().getRetentionPeriod(), ChronoUnit.DAYS);
+        long removed = removeAuditEventsBefore(before);
+        log.info("Deleted {} audit events older than {}", removed, before);
+    }
+
+    /**
+     * Deletes the audit events older than a date, with their data.
+     *
+     * @param before the date of the oldest event to keep.
+     * @return the number of events deleted.
+     */
+    public long removeAuditEventsBefore(Instant before) {
+        int chunkSize = properties.getPurgeChunkSize();
+        long removed = 0;
+        for (String principal : persistenceAuditEventRepository.findAllPrincipals()) {
+            int deleted;
+            do {
+                deleted = transactionTemplate.execute(status -> {
+                    List<Long> ids = persistenceAuditEventRepository.findIdsByPrincipalBefore(principal, before, PageRequest.of(0, chunkSize));
+                    if (ids.isEmpty()) {
+                        return 0;
+                    }
+                    // 데이터 행을 먼저 지운다 (외래 키)
+                    persistenceAuditEventRepository.deleteDataByEventIdIn(ids);
+                    persistenceAuditEventRepository.deleteByIdIn(ids);
+                    return ids.size();
+                });
+                removed += deleted;
+            } while (deleted == chunkSize);
+        }
+        return removed;
+    }
+}
@@ -0,0 +1,136 @@
+package com.my.rental.service;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.my.rental.config.ApplicationProperties;
+import com.my.rental.repository.ExpiredRentedItem;
+import com.my.rental.repository.RentedItemRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Marks the rented items past their due date overdue, in bulk.
+ * <p>
+ * Rentals are split in {@code partitions} by rental id, so all the items of one rental belong to one partition.
+ * Every node of the cluster runs the job and claims the partitions that are not locked by another node in the
+ * {@value #LOCK_MAP_NAME} Hazelcast map, then works through them on {@code threads} threads. A partition is
+ * read in {@code chunk-size} chunks with a keyset range scan on {@code (due_date, id, rental_id)}, the partition
+ * filter being answered from the index entries; each chunk is moved in
+ * one transaction by {@link RentalService#beOverdueBooks(List)}, which locks the rentals of the chunk and skips the
+ * items returned since the chunk was read.
+ */
+@Service
+public class OverdueJob {
+
+    public static final String LOCK_MAP_NAME = "overdueJobLocks";
+
+    // 첫 번째 청크를 읽을 때 쓰는 키셋 시작값
+    private static final LocalDate FIRST_DUE_DATE = LocalDate.of(1970, 1, 1);
+
+    private final Logger log = LoggerFactory.getLogger(OverdueJob.class);
+
+    private final RentedItemRepository rentedItemRepository;
+    private final RentalService rentalService;
+    private final ApplicationProperties.Overdue properties;
+    private final IMap<String, Boolean> partitionLocks;
+
+    private final Timer runTimer;
+    private final Counter itemsCounter;
+
+    public OverdueJob(RentedItemRepository rentedItemRepository, RentalService rentalService,
+                      ApplicationProperties applicationProperties, HazelcastInstance hazelcastInstance,
+                      MeterRegistry meterRegistry) {
+        this.rentedItemRepository = rentedItemRepository;
+        this.rentalService = rentalService;
+        this.properties = applicationProperties.getOverdue();
+        this.partitionLocks = hazelcastInstance.getMap(LOCK_MAP_NAME);
+        this.runTimer = meterRegistry.timer("rental.overdue.job");
+        this.itemsCounter = meterRegistry.counter("rental.overdue.items");
+    }
+
+    @Scheduled(cron = "${application.overdue.cron:0 0 1 * * ?}")
+    public void markOverdueItems() {
+        runTimer.record(() -> run(LocalDate.now()));
+    }
+
+    /**
+     * Marks overdue all the items due before a date, in the partitions this node can claim.
+     *
+     * @param today the first day on which items are not overdue yet.
+     * @return the number of items marked overdue by this node.
+     */
+    public long run(LocalDate today) {
+        log.info("Overdue job started for items due before {}", today);
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getThreads(), new CustomizableThreadFactory("rental-overdue-"));
+        List<Future<Long>> results = new ArrayList<>(properties.getPartitions());
+        for (int partition = 0; partition < properties.getPartitions(); partition++) {
+            int claimed = partition;
+            results.add(executor.submit(() -> runPartition(today, claimed)));
+        }
+        long total = 0;
+        try {
+            for (Future<Long> result : results) {
+                try {
+                    total += result.get();
+                } catch (ExecutionException e) {
+                    // 실패한 파티션의 남은 아이템은 다음 실행에서 처리된다
+                    log.error("Overdue partition failed: {}", e.getCause().getMessage(), e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+        log.info("Overdue job marked {} items overdue", total);
+        return total;
+    }
+
+    private long runPartition(LocalDate today, int partition) throws InterruptedException {
+        String lockKey = today + "/" + partition;
+        // 다른 노드가 처리 중인 파티션은 건너뛴다, 노드가 죽어도 lease 가 지나면 잠금이 풀린다
+        if (!partitionLocks.tryLock(lockKey, 0, TimeUnit.SECONDS, properties.getLockLeaseMinutes(), TimeUnit.MINUTES)) {
+            log.debug("Overdue partition {} is processed by another node", partition);
+            return 0;
+        }
+        try {
+            long count = 0;
+            LocalDate afterDueDate = FIRST_DUE_DATE;
+            Long afterId = 0L;
+            PageRequest chunk = PageRequest.of(0, properties.getChunkSize());
+            List<ExpiredRentedItem> expiredItems;
+            do {
+                expiredItems = rentedItemRepository.findExpired(today, properties.getPartitions(), partition, afterDueDate, afterId, chunk);
+                if (expiredItems.isEmpty()) {
+                    break;
+                }
+                int moved = rentalService.beOverdueBooks(expiredItems);
+                itemsCounter.increment(moved);
+                count += moved;
+                ExpiredRentedItem last = expiredItems.get(expiredItems.size() - 1);
+                afterDueDate = last.getDueDate();
+                afterId = last.getId();
+            } while (expiredItems.size() == properties.getChunkSize());
+            log.debug("Overdue partition {} done, {} items", partition, count);
+            return count;
+        } finally {
+            partitionLocks.unlock(lockKey);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.my.rental.service;
+
+import com.my.rental.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs the commands changing a {@link com.my.rental.domain.Rental} on a fixed set of single-threaded lanes.
+ * <p>
+ * The user id selects the lane, so the commands of one user run one after the other, in arrival order,
+ * and never wait on each other's row locks, while the commands of different users run in parallel.
+ * Each lane has a bounded queue; when it is full the command is rejected with a
+ * {@link RentalCommandRejectedException} instead of piling up request threads, and a caller waits at most
+ * {@code command-timeout-ms} for the result before a {@link RentalCommandTimeoutException}.
+ * <p>
+ * A command that lost a concurrent update of the same rental to another node fails with a
+ * {@link ConcurrencyFailureException}: an optimistic locking failure on commit in
+ * {@link ApplicationProperties.ConcurrencyMode#OPTIMISTIC} mode, a lock timeout in
+ * {@link ApplicationProperties.ConcurrencyMode#PESSIMISTIC} mode. It is run again, up to {@code max-attempts}
+ * times, after a randomized exponential backoff; the backoff is waited on a scheduler thread and the command is
+ * then queued on its lane again, so the lane runs other commands meanwhile.
+ */
+@Service
+public class RentalCommandExecutor {
+
+    private final Logger log = LoggerFactory.getLogger(RentalCommandExecutor.class);
+
+    private final ApplicationProperties.Rental properties;
+    private final ThreadPoolExecutor[] lanes;
+    private final ScheduledExecutorService retryScheduler;
+    private final Counter rejectedCounter;
+    private final Counter timeoutCounter;
+    private final Map<ApplicationProperties.ConcurrencyMode, Counter> retryCounters = new EnumMap<>(ApplicationProperties.ConcurrencyMode.class);
+    private final Map<ApplicationProperties.ConcurrencyMode, Counter> exhaustedCounters = new EnumMap<>(ApplicationProperties.ConcurrencyMode.class);
+
+    public RentalCommandExecutor(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.properties = applicationProperties.getRental();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("rental-lane-");
+        this.lanes = new ThreadPoolExecutor[properties.getCommandLanes()];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getCommandQueueCapacity()), threadFactory);
+            ThreadPoolExecutor lane = lanes[i];
+            Gauge.builder("rental.command.queue.depth", lane, executor -> executor.getQueue().size())
+                .description("Number of rental commands waiting in a lane")
+                .tags(Tags.of("lane", String.valueOf(i)))
+                .register(meterRegistry);
+        }
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("rental-retry-"));
+        this.rejectedCounter = meterRegistry.counter("rental.command.rejected");
+        this.timeoutCounter = meterRegistry.counter("rental.command.timeout");
+        for (ApplicationProperties.ConcurrencyMode mode : ApplicationProperties.ConcurrencyMode.values()) {
+            String modeTag = mode.name().toLowerCase();
+            retryCounters.put(mode, meterRegistry.counter("rental.concurrency.retries", "mode", modeTag));
+            exhaustedCounters.put(mode, meterRegistry.counter("rental.concurrency.exhausted", "mode", modeTag));
+        }
+    }
+
+    /**
+     * Runs a command on the lane of a user and waits for its result.
+     *
+     * @param userId  the user the command changes the rental of.
+     * @param command the command, run again when it fails with a {@link ConcurrencyFailureException}.
+     * @return the result of the command.
+     * @throws RentalCommandRejectedException if the lane of the user is full.
+     * @throws RentalCommandTimeoutException  if the command did not complete in time.
+     * @throws Exception                      the exception thrown by the command.
+     */
+    public <T> T execute(Long userId, Callable<T> command) throws Exception {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        // 레인 스레드에서도 요청한 사용자의 인증 정보를 그대로 쓴다
+        submit(userId, new DelegatingSecurityContextCallable<>(command), 1, result);
+        try {
+            return result.get(properties.getCommandTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw (Error) cause;
+        } catch (TimeoutException e) {
+            // 아직 시작하지 않은 명령은 실행하지 않는다, 이미 실행 중인 명령은 끝까지 실행된다
+            result.cancel(false);
+            timeoutCounter.increment();
+            log.warn("Rental command of user {} timed out after {} ms", userId, properties.getCommandTimeoutMs());
+            throw new RentalCommandTimeoutException(userId);
+        } catch (InterruptedException e) {
+            result.cancel(false);
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    private <T> void submit(Long userId, Callable<T> command, int attempt, CompletableFuture<T> result) {
+        try {
+            laneOf(userId).execute(() -> run(userId, command, attempt, result));
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            log.warn("Rejected rental command of user {}, its lane is full", userId);
+            throw new RentalCommandRejectedException(userId);
+        }
+    }
+
+    private <T> void run(Long userId, Callable<T> command, int attempt, CompletableFuture<T> result) {
+        if (result.isDone()) {
+            return;
+        }
+        try {
+            result.complete(command.call());
+        } catch (ConcurrencyFailureException e) {
+            ApplicationProperties.ConcurrencyMode mode = properties.getConcurrencyMode();
+            if (attempt >= properties.getMaxAttempts()) {
+                exhaustedCounters.get(mode).increment();
+                result.completeExceptionally(e);
+                return;
+            }
+            retryCounters.get(mode).increment();
+            // 같은 순간에 충돌한 요청들이 다시 동시에 재시도하지 않도록 대기 시간을 흩뜨린다
+            retryScheduler.schedule(() -> {
+                try {
+                    submit(userId, command, attempt + 1, result);
+                } catch (RentalCommandRejectedException rejected) {
+                    result.completeExceptionally(rejected);
+                }
+            }, backOffMillis(attempt), TimeUnit.MILLISECONDS);
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private long backOffMillis(int attempt) {
+        long initial = properties.getRetryBackoffMs();
+        long interval = Math.min(initial << Math.min(attempt - 1, 20), initial * 10);
+        return interval + (long) (interval * ThreadLocalRandom.current().nextDouble());
+    }
+
+    private ThreadPoolExecutor laneOf(Long userId) {
+        return lanes[Math.floorMod(Long.hashCode(userId), lanes.length)];
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        retryScheduler.shutdownNow();
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+        for (ThreadPoolExecutor lane : lanes) {
+            if (!lane.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Rental command lane did not terminate, {} commands dropped", lane.shutdownNow().size());
+            }
+        }
+    }
+}
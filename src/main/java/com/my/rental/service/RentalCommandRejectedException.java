@@ -0,0 +1,13 @@
+package com.my.rental.service;
+
+/**
+ * Thrown when the command lane of a user is full and a rental command cannot be queued.
+ */
+public class RentalCommandRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public RentalCommandRejectedException(Long userId) {
+        super("Too many pending rental commands for user " + userId);
+    }
+}
@@ -0,0 +1,13 @@
+package com.my.rental.service;
+
+/**
+ * Thrown when a rental command did not complete within the command timeout.
+ */
+public class RentalCommandTimeoutException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public RentalCommandTimeoutException(Long userId) {
+        super("Rental command for user " + userId + " timed out");
+    }
+}
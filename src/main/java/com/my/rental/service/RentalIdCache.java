@@ -0,0 +1,99 @@
+package com.my.rental.service;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.my.rental.repository.RentalRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+/**
+ * Resolves the id of the rental of a user, so that the rental itself is then loaded by primary key and comes
+ * from the second-level cache.
+ * <p>
+ * The ids live in the {@value #MAP_NAME} Hazelcast map, with a near cache. An id read in a transaction is only
+ * cached once the transaction commits, and users without a rental are not cached. A user's rental id never
+ * changes while the rental exists; {@link RentalService} evicts the entry when a rental is deleted or moved to
+ * another user, and rental commands evict an entry that no longer matches the loaded rental, e.g. after the
+ * rental was deleted directly in the database.
+ */
+@Service
+public class RentalIdCache {
+
+    public static final String MAP_NAME = "rentalIdByUserId";
+
+    private final Logger log = LoggerFactory.getLogger(RentalIdCache.class);
+
+    private final RentalRepository rentalRepository;
+    private final IMap<Long, Long> rentalIds;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public RentalIdCache(RentalRepository rentalRepository, HazelcastInstance hazelcastInstance, MeterRegistry meterRegistry) {
+        this.rentalRepository = rentalRepository;
+        this.rentalIds = hazelcastInstance.getMap(MAP_NAME);
+        this.hitCounter = meterRegistry.counter("rental.id.cache", "result", "hit");
+        this.missCounter = meterRegistry.counter("rental.id.cache", "result", "miss");
+    }
+
+    /**
+     * Get the id of the rental of a user, from the cache when possible.
+     *
+     * @param userId the id of the user.
+     * @return the id of the rental, empty if the user has no rental.
+     */
+    public Optional<Long> findRentalId(Long userId) {
+        Long rentalId = rentalIds.get(userId);
+        if (rentalId != null) {
+            hitCounter.increment();
+            return Optional.of(rentalId);
+        }
+        missCounter.increment();
+        Optional<Long> found = rentalRepository.findIdByUserId(userId);
+        // 이 트랜잭션이 방금 만든 rental 일 수도 있으므로 커밋된 뒤에 캐시한다
+        found.ifPresent(id -> put(userId, id));
+        return found;
+    }
+
+    /**
+     * Cache the rental id of a user once the current transaction, if any, commits.
+     *
+     * @param userId   the id of the user.
+     * @param rentalId the id of the rental of the user.
+     */
+    public void put(Long userId, Long rentalId) {
+        afterCommit(() -> rentalIds.set(userId, rentalId));
+    }
+
+    /**
+     * Evict the rental id of a user, on every member of the cluster.
+     *
+     * @param userId the id of the user.
+     */
+    public void evict(Long userId) {
+        log.debug("Evicting rental id of user {}", userId);
+        rentalIds.delete(userId);
+        // 커밋 전에 다른 트랜잭션이 이전 id 를 다시 캐시했을 수 있다
+        afterCommit(() -> rentalIds.delete(userId));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,159 @@
+package com.my.rental.service;
+
+import com.my.rental.domain.exception.BookAlreadyRentedException;
+import com.my.rental.domain.exception.RentalItemNotFoundException;
+import com.my.rental.repository.RentalSummaryRepository;
+import com.my.rental.repository.RentalTotals;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Business metrics of the rental service.
+ * <p>
+ * Each rental command is timed in the {@code rental.command} timer, tagged by command and outcome; the count of the
+ * timer is the number of commands of each outcome. A command that returns inside a transaction gets its outcome when
+ * the transaction completes, so that a version conflict detected on commit is counted as a rollback and not as a
+ * success.
+ * <p>
+ * The {@code rental.active}, {@code rental.overdue.books} and {@code rental.late.fee.outstanding} gauges are the totals
+ * of the {@link com.my.rental.domain.RentalSummary} read model, read again every {@code gauge-refresh-ms} by every
+ * node rather than on each scrape.
+ */
+@Service
+public class RentalMetrics {
+
+    public static final String COMMAND_TIMER = "rental.command";
+
+    static final String SUCCESS = "success";
+    static final String REJECTED = "rejected";
+    static final String NOT_FOUND = "not_found";
+    static final String CONFLICT = "conflict";
+    static final String ROLLBACK = "rollback";
+    static final String ERROR = "error";
+
+    private static final List<String> OUTCOMES = Arrays.asList(SUCCESS, REJECTED, NOT_FOUND, CONFLICT, ROLLBACK, ERROR);
+
+    private final RentalSummaryRepository rentalSummaryRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Map<String, Timer>> commandTimers = new ConcurrentHashMap<>();
+
+    private final AtomicLong activeRentals = new AtomicLong();
+    private final AtomicLong overdueItems = new AtomicLong();
+    private final AtomicLong lateFees = new AtomicLong();
+
+    public RentalMetrics(RentalSummaryRepository rentalSummaryRepository, MeterRegistry meterRegistry) {
+        this.rentalSummaryRepository = rentalSummaryRepository;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("rental.active", activeRentals, AtomicLong::doubleValue)
+            .description("Number of rentals holding rented or overdue books")
+            .register(meterRegistry);
+        Gauge.builder("rental.overdue.books", overdueItems, AtomicLong::doubleValue)
+            .description("Number of overdue books not returned yet")
+            .register(meterRegistry);
+        Gauge.builder("rental.late.fee.outstanding", lateFees, AtomicLong::doubleValue)
+            .description("Sum of the late fees not paid yet")
+            .register(meterRegistry);
+    }
+
+    /**
+     * A rental command, which may throw a checked exception.
+     */
+    @FunctionalInterface
+    public interface Command<T, E extends Exception> {
+        T execute() throws E;
+    }
+
+    /**
+     * Runs a rental command and records its duration and outcome.
+     *
+     * @param name    the name of the command, used as the {@code command} tag.
+     * @param command the command.
+     * @return the result of the command.
+     * @throws E the exception of the command.
+     */
+    public <T, E extends Exception> T recordCommand(String name, Command<T, E> command) throws E {
+        long start = System.nanoTime();
+        T result;
+        try {
+            result = command.execute();
+        } catch (Exception e) {
+            record(name, outcomeOf(e), start);
+            throw e;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // 낙관적 잠금 충돌은 커밋할 때 드러나므로 트랜잭션이 끝난 뒤 결과를 기록한다
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    record(name, status == TransactionSynchronization.STATUS_COMMITTED ? SUCCESS : ROLLBACK, start);
+                }
+            });
+        } else {
+            record(name, SUCCESS, start);
+        }
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${application.rental.gauge-refresh-ms:60000}")
+    public void refreshGauges() {
+        RentalTotals totals = rentalSummaryRepository.findTotals();
+        activeRentals.set(totals.getActiveRentals());
+        overdueItems.set(totals.getOverdueItems());
+        lateFees.set(totals.getLateFees());
+    }
+
+    static String outcomeOf(Exception e) {
+        if (e instanceof RentalItemNotFoundException) {
+            return NOT_FOUND;
+        }
+        if (e instanceof ConcurrencyFailureException) {
+            return CONFLICT;
+        }
+        if (e instanceof BookAlreadyRentedException) {
+            return REJECTED;
+        }
+        // 대출 불가(연체, 대출 한도 초과)는 도메인에서 Exception 으로 알린다
+        return e.getClass() == Exception.class ? REJECTED : ERROR;
+    }
+
+    private void record(String name, String outcome, long start) {
+        commandTimer(name, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer commandTimer(String name, String outcome) {
+        // 명령마다 결과별 타이머를 한 번만 등록하고 이후에는 찾기만 한다
+        Map<String, Timer> timers = commandTimers.get(name);
+        if (timers == null) {
+            timers = commandTimers.computeIfAbsent(name, this::registerCommandTimers);
+        }
+        return timers.get(outcome);
+    }
+
+    private Map<String, Timer> registerCommandTimers(String name) {
+        Map<String, Timer> timers = new HashMap<>();
+        for (String outcome : OUTCOMES) {
+            timers.put(outcome, Timer.builder(COMMAND_TIMER)
+                .description("Duration of the rental commands")
+                .tag("command", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+        }
+        return timers;
+    }
+}
@@ -1,12 +1,20 @@
 package com.my.rental.service;
 
 import com.my.rental.domain.Rental;
+import com.my.rental.domain.RentalSummary;
+import com.my.rental.domain.enumeration.RentalStatus;
+import com.my.rental.domain.event.StockChangeResult;
+import com.my.rental.repository.ExpiredRentedItem;
 import com.my.rental.web.rest.dto.RentalDTO;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Service Interface for managing {@link com.my.rental.domain.Rental}.
@@ -29,6 +37,46 @@ public interface RentalService {
      */
     Page<RentalDTO> findAll(Pageable pageable);
 
+    /**
+     * Get the rentals after an id, in id order, without counting them.
+     *
+     * @param afterId the id of the last rental of the previous slice.
+     * @param size    the maximum number of rentals.
+     * @return the slice of entities.
+     */
+    Slice<RentalDTO> findAllAfter(Long afterId, int size);
+
+    /**
+     * Pass every rental, optionally of one status, to a consumer in id order, streaming them from the database
+     * in a read-only transaction. Each rental is detached once consumed, so memory does not grow with the row count.
+     *
+     * @param rentalStatus the status of the rentals, or {@code null} for all the rentals.
+     * @param consumer     the consumer of the rentals.
+     */
+    void exportRentals(RentalStatus rentalStatus, Consumer<Rental> consumer);
+
+    /**
+     * Count all the rentals.
+     *
+     * @return the number of entities.
+     */
+    long count();
+
+    /**
+     * Get the rental summary of a user from the read model, with one primary key lookup.
+     *
+     * @param userId the id of the user.
+     * @return the summary, empty when the user has no rental.
+     */
+    Optional<RentalSummary> findSummary(Long userId);
+
+    /**
+     * Recompute the whole rental summary read model from the rental and item tables.
+     *
+     * @return the number of summaries written.
+     */
+    long rebuildSummaries();
+
 
     /**
      * Get the "id" rental.
@@ -54,11 +102,38 @@ public interface RentalService {
      */
     Rental rentBook(Long userId, Long bookId, String bookTitle) throws Exception;
 
+    /**
+     * 여러 도서를 한 번에 대출, 대출 한도는 한 번만 검사하고 대출 아이템은 한 번의 flush 로 저장한다.
+     *
+     * @param userId     the id of the user.
+     * @param bookTitles the titles of the books to rent by book id.
+     * @return the rental.
+     */
+    Rental rentBooks(Long userId, Map<Long, String> bookTitles) throws Exception;
+
     Rental returnBooks(Long userId, Long bookId) throws Exception;
 
     Long beOverdueBook(Long rentalId, Long bookId);
 
+    /**
+     * 기한이 지난 대출 아이템들을 한 번에 연체 처리한다.
+     * 아이템을 연체 아이템으로 옮기고, rental 을 대출 불가로 바꾸며 연체 도서 수만큼 연체료를 더한다.
+     * 청크를 읽은 뒤 반납된 아이템은 건너뛴다.
+     *
+     * @param expiredItems the expired rented items of one chunk.
+     * @return the number of items marked overdue.
+     */
+    int beOverdueBooks(List<ExpiredRentedItem> expiredItems);
+
     Rental returnOverdueBook(Long userId, Long bookId) throws Exception;
 
     Rental releaseOverdue(Long userId);
+
+    /**
+     * 도서 서비스의 재고 변경 결과 처리, 실패한 대출은 취소(보상)한다.
+     * 한 번에 poll 한 결과 전체를 하나의 트랜잭션으로 처리한다.
+     *
+     * @param results the stock change results polled from the book service.
+     */
+    void applyStockChangeResults(List<StockChangeResult> results) throws Exception;
 }
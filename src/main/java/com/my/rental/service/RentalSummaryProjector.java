@@ -0,0 +1,169 @@
+package com.my.rental.service;
+
+import com.my.rental.config.ApplicationProperties;
+import com.my.rental.domain.Rental;
+import com.my.rental.domain.RentedItem;
+import com.my.rental.domain.enumeration.RentalStatus;
+import com.my.rental.repository.RentalSummaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Keeps the {@link com.my.rental.domain.RentalSummary} read model up to date.
+ * <p>
+ * Every rental command reports what it changed in its own transaction, and the change is applied with one update
+ * statement keyed by the user id, without reading the summary first. A rental saved for another user takes its
+ * summary row along. A rental without a summary row yet, e.g. one
+ * created before the read model existed, gets it computed from the item tables. {@link #rebuild()} recomputes all
+ * the rows, {@code rebuild-partitions} partitions of rental ids at a time on {@code rebuild-threads} threads.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class RentalSummaryProjector {
+
+    private final Logger log = LoggerFactory.getLogger(RentalSummaryProjector.class);
+
+    private final RentalSummaryRepository rentalSummaryRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationProperties.RentalSummary properties;
+
+    public RentalSummaryProjector(RentalSummaryRepository rentalSummaryRepository, EntityManager entityManager,
+                                  PlatformTransactionManager transactionManager, ApplicationProperties applicationProperties) {
+        this.rentalSummaryRepository = rentalSummaryRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = applicationProperties.getRentalSummary();
+    }
+
+    public void rentalSaved(Rental rental) {
+        if (rental.getUserId() != null) {
+            // 다른 사용자에게 옮겨진 rental 이면 요약 행도 새 사용자로 옮긴다
+            rentalSummaryRepository.moveToUser(rental.getId(), rental.getUserId());
+        }
+        overdueChanged(rental, 0);
+    }
+
+    public void booksRented(Rental rental, int count) {
+        itemsChanged(rental, count, 0);
+    }
+
+    public void bookReturned(Rental rental) {
+        itemsChanged(rental, -1, 0);
+    }
+
+    public void bookOverdue(Rental rental) {
+        itemsChanged(rental, -1, 1);
+    }
+
+    public void overdueBookReturned(Rental rental) {
+        overdueChanged(rental, -1);
+    }
+
+    public void overdueReleased(Rental rental) {
+        overdueChanged(rental, 0);
+    }
+
+    /**
+     * Moves {@code count} items of each rental from rented to overdue, after the items and the rentals themselves
+     * have been updated in bulk.
+     */
+    public void itemsExpired(List<Long> rentalIds, int count, long lateFee) {
+        int updated = rentalSummaryRepository.applyExpiredItems(rentalIds, count, lateFee, RentalStatus.RENT_UNAVAILABLE);
+        if (updated < rentalIds.size()) {
+            rentalSummaryRepository.insertMissing(rentalIds);
+        }
+    }
+
+    /**
+     * Recomputes the whole read model from the rental and item tables, one partition of rentals per transaction.
+     *
+     * @return the number of summary rows written.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long rebuild() {
+        log.info("Rebuilding the rental summaries");
+        int partitions = properties.getRebuildPartitions();
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getRebuildThreads(), new CustomizableThreadFactory("rental-summary-"));
+        List<Future<Integer>> results = new ArrayList<>(partitions);
+        for (int partition = 0; partition < partitions; partition++) {
+            int rebuilt = partition;
+            results.add(executor.submit(() -> transactionTemplate.execute(status -> {
+                rentalSummaryRepository.deletePartition(partitions, rebuilt);
+                return rentalSummaryRepository.insertPartition(partitions, rebuilt);
+            })));
+        }
+        long total = 0;
+        try {
+            for (Future<Integer> result : results) {
+                total += result.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Rental summary rebuild failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Rental summary rebuild interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+        log.info("Rebuilt {} rental summaries", total);
+        return total;
+    }
+
+    private void itemsChanged(Rental rental, int rentedDelta, int overdueDelta) {
+        // 대출/반납/연체 명령은 대출 아이템을 이미 읽었으므로 다음 반납 예정일을 메모리에서 구한다
+        LocalDate nextDueDate = rental.getRentedItems().values().stream()
+            .map(RentedItem::getDueDate)
+            .filter(Objects::nonNull)
+            .min(Comparator.naturalOrder())
+            .orElse(null);
+        int updated = rentalSummaryRepository.applyItemChanges(rental.getUserId(), rentedDelta, overdueDelta, nextDueDate,
+            rental.getRentalStatus(), lateFeeOf(rental));
+        if (updated == 0) {
+            insertMissing(rental);
+        }
+    }
+
+    private void overdueChanged(Rental rental, int overdueDelta) {
+        int updated = rentalSummaryRepository.applyOverdueChanges(rental.getUserId(), overdueDelta,
+            rental.getRentalStatus(), lateFeeOf(rental));
+        if (updated == 0) {
+            insertMissing(rental);
+        }
+    }
+
+    private void insertMissing(Rental rental) {
+        // 아직 요약 행이 없으면 이번 명령의 변경까지 반영된 아이템 테이블에서 계산한다
+        entityManager.flush();
+        try {
+            rentalSummaryRepository.insertMissing(Collections.singletonList(rental.getId()));
+        } catch (DataIntegrityViolationException e) {
+            // 같은 rental 에 대한 다른 명령이 먼저 행을 넣었다: 재시도하면 update 로 반영된다
+            throw new OptimisticLockingFailureException("Concurrent insert of the rental summary of user " + rental.getUserId(), e);
+        }
+    }
+
+    private static long lateFeeOf(Rental rental) {
+        return rental.getLateFee() == null ? 0 : rental.getLateFee();
+    }
+}
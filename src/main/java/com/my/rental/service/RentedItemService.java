@@ -1,12 +1,16 @@
 package com.my.rental.service;
 
 import com.my.rental.domain.RentedItem;
+import com.my.rental.domain.enumeration.RentalStatus;
 import com.my.rental.web.rest.dto.RentedItemDTO;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.time.LocalDate;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Service Interface for managing {@link com.my.rental.domain.RentedItem}.
@@ -29,6 +33,34 @@ public interface RentedItemService {
      */
     Page<RentedItemDTO> findAll(Pageable pageable);
 
+    /**
+     * Get the rentedItems after an id, in id order, without counting them.
+     *
+     * @param afterId the id of the last rentedItem of the previous slice.
+     * @param size    the maximum number of rentedItems.
+     * @return the slice of entities.
+     */
+    Slice<RentedItemDTO> findAllAfter(Long afterId, int size);
+
+    /**
+     * Pass every rentedItem matching the filters to a consumer in id order, with its rental, streaming them
+     * from the database in a read-only transaction. Each rentedItem is detached once consumed, so memory
+     * does not grow with the row count.
+     *
+     * @param dueFrom      the first due date, or {@code null}.
+     * @param dueTo        the last due date, or {@code null}.
+     * @param rentalStatus the status of the rentals of the rentedItems, or {@code null}.
+     * @param consumer     the consumer of the rentedItems.
+     */
+    void exportRentedItems(LocalDate dueFrom, LocalDate dueTo, RentalStatus rentalStatus, Consumer<RentedItem> consumer);
+
+    /**
+     * Count all the rentedItems.
+     *
+     * @return the number of entities.
+     */
+    long count();
+
 
     /**
      * Get the "id" rentedItem.
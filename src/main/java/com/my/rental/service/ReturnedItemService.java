@@ -0,0 +1,21 @@
+package com.my.rental.service;
+
+import com.my.rental.domain.ReturnedItem;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Service Interface for reading the {@link com.my.rental.domain.ReturnedItem} history.
+ */
+public interface ReturnedItemService {
+
+    /**
+     * Get a page of the returnedItems of a user.
+     *
+     * @param userId the id of the user.
+     * @param pageable the pagination information.
+     * @return the page of entities, empty if the user has no rental.
+     */
+    Page<ReturnedItem> findAllByUserId(Long userId, Pageable pageable);
+}
@@ -1,20 +1,58 @@
 package com.my.rental.service.impl;
 
 import com.my.rental.adaptor.RentalProducer;
+import com.my.rental.config.ApplicationProperties;
+import com.my.rental.domain.OverdueItem;
+import com.my.rental.domain.RentalSummary;
+import com.my.rental.domain.RentedItem;
+import com.my.rental.domain.ReturnedItem;
+import com.my.rental.domain.enumeration.RentalStatus;
+import com.my.rental.domain.event.StockChangeResult;
+import com.my.rental.repository.ExpiredRentedItem;
+import com.my.rental.repository.OverdueItemRepository;
+import com.my.rental.repository.RentalSummaryRepository;
+import com.my.rental.repository.RentedItemRepository;
+import com.my.rental.repository.ReturnedItemRepository;
+import com.my.rental.service.RentalIdCache;
+import com.my.rental.service.RentalMetrics;
 import com.my.rental.service.RentalService;
+import com.my.rental.service.RentalSummaryProjector;
 import com.my.rental.domain.Rental;
 import com.my.rental.repository.RentalRepository;
 import com.my.rental.web.rest.dto.RentalDTO;
 import com.my.rental.web.rest.mapper.RentalMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.Cache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service Implementation for managing {@link Rental}.
@@ -26,15 +64,45 @@ public class RentalServiceImpl implements RentalService {
     private final Logger log = LoggerFactory.getLogger(RentalServiceImpl.class);
 
     private final RentalRepository rentalRepository;
+    private final RentedItemRepository rentedItemRepository;
+    private final ReturnedItemRepository returnedItemRepository;
+    private final OverdueItemRepository overdueItemRepository;
+    private final RentalSummaryRepository rentalSummaryRepository;
+    private final RentalSummaryProjector rentalSummaryProjector;
+    private final RentalIdCache rentalIdCache;
+    private final RentalMetrics rentalMetrics;
     private final RentalMapper rentalMapper;
     private final RentalProducer rentalProducer;
+    private final ApplicationProperties applicationProperties;
+    private final MeterRegistry meterRegistry;
+    private final EntityManager entityManager;
+
+    private static final String OVERDUE_ITEMS_ROLE = Rental.class.getName() + ".overdueItems";
+
+    private static final Map<String, Object> PESSIMISTIC_LOCK_HINTS = Collections.singletonMap("javax.persistence.lock.timeout", 5000);
 
     private int pointPerBooks = 30;
 
-    public RentalServiceImpl(RentalRepository rentalRepository, RentalMapper rentalMapper, RentalProducer rentalProducer) {
+    public RentalServiceImpl(RentalRepository rentalRepository, RentedItemRepository rentedItemRepository,
+                             ReturnedItemRepository returnedItemRepository, OverdueItemRepository overdueItemRepository,
+                             RentalSummaryRepository rentalSummaryRepository, RentalSummaryProjector rentalSummaryProjector,
+                             RentalIdCache rentalIdCache, RentalMetrics rentalMetrics,
+                             RentalMapper rentalMapper,
+                             RentalProducer rentalProducer, ApplicationProperties applicationProperties,
+                             MeterRegistry meterRegistry, EntityManager entityManager) {
         this.rentalRepository = rentalRepository;
+        this.rentedItemRepository = rentedItemRepository;
+        this.returnedItemRepository = returnedItemRepository;
+        this.overdueItemRepository = overdueItemRepository;
+        this.rentalSummaryRepository = rentalSummaryRepository;
+        this.rentalSummaryProjector = rentalSummaryProjector;
+        this.rentalIdCache = rentalIdCache;
+        this.rentalMetrics = rentalMetrics;
         this.rentalMapper = rentalMapper;
         this.rentalProducer = rentalProducer;
+        this.applicationProperties = applicationProperties;
+        this.meterRegistry = meterRegistry;
+        this.entityManager = entityManager;
     }
 
     /**
@@ -46,7 +114,12 @@ public class RentalServiceImpl implements RentalService {
     @Override
     public Rental save(Rental rental) {
         log.debug("Request to save Rental : {}", rental);
-        return rentalRepository.save(rental);
+        if (rental.getId() != null) {
+            evictPreviousUser(rental.getId(), rental.getUserId());
+        }
+        rental = rentalRepository.save(rental);
+        rentalSummaryProjector.rentalSaved(rental);
+        return rental;
     }
 
     /**
@@ -59,10 +132,79 @@ public class RentalServiceImpl implements RentalService {
     @Transactional(readOnly = true)
     public Page<RentalDTO> findAll(Pageable pageable) {
         log.debug("Request to get all Rentals");
-        return rentalRepository.findAll(pageable)
+        // 엔티티를 만들지 않고 목록에 필요한 컬럼만 읽는다
+        return rentalRepository.findAllListItems(pageable)
             .map(rentalMapper::toDto);
     }
 
+    /**
+     * Get the rentals after an id, in id order, without counting them.
+     *
+     * @param afterId the id of the last rental of the previous slice.
+     * @param size    the maximum number of rentals.
+     * @return the slice of entities.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<RentalDTO> findAllAfter(Long afterId, int size) {
+        log.debug("Request to get {} Rentals after {}", size, afterId);
+        return rentalRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, size))
+            .map(rentalMapper::toDto);
+    }
+
+    /**
+     * Pass every rental, optionally of one status, to a consumer in id order.
+     *
+     * @param rentalStatus the status of the rentals, or {@code null} for all the rentals.
+     * @param consumer     the consumer of the rentals.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportRentals(RentalStatus rentalStatus, Consumer<Rental> consumer) {
+        log.debug("Request to export Rentals of status {}", rentalStatus);
+        try (Stream<Rental> rentals = rentalRepository.streamAll(rentalStatus)) {
+            rentals.forEach(rental -> {
+                consumer.accept(rental);
+                entityManager.detach(rental);
+            });
+        }
+    }
+
+    /**
+     * Count all the rentals.
+     *
+     * @return the number of entities.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long count() {
+        return rentalRepository.count();
+    }
+
+    /**
+     * Get the rental summary of a user from the read model.
+     *
+     * @param userId the id of the user.
+     * @return the summary, empty when the user has no rental.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<RentalSummary> findSummary(Long userId) {
+        log.debug("Request to get the RentalSummary of user : {}", userId);
+        return rentalSummaryRepository.findById(userId);
+    }
+
+    /**
+     * Recompute the whole rental summary read model, partition by partition in parallel.
+     *
+     * @return the number of summaries written.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long rebuildSummaries() {
+        return rentalSummaryProjector.rebuild();
+    }
+
 
     /**
      * Get one rental by id.
@@ -86,70 +228,258 @@ public class RentalServiceImpl implements RentalService {
     @Override
     public void delete(Long id) {
         log.debug("Request to delete Rental : {}", id);
+        rentalRepository.findById(id).map(Rental::getUserId).ifPresent(rentalIdCache::evict);
         rentalRepository.deleteById(id);
     }
 
     @Override
     @Transactional
     public Rental rentBook(Long userId, Long bookId, String bookTitle) throws Exception{
+        return rentalMetrics.recordCommand("rentBook", () -> {
+            Rental rental = findRentalForCommand(userId);// 유저의 Rental 정보 조회
+            rental.checkRentalAvailable();// 대출가능 상태 확인
+            rental = rental.rentBook(bookId,bookTitle); // rental 도메인에 대출 처리 위임
+            rentalRepository.save(rental);// rental 저장
+            rentalSummaryProjector.booksRented(rental, 1);
 
-        Rental rental = rentalRepository.findByUserId(userId).get();// 유저의 Rental 정보 조회
-        rental.checkRentalAvailable();// 대출가능 상태 확인
-        rental = rental.rentBook(bookId,bookTitle); // rental 도메인에 대출 처리 위임
-        rentalRepository.save(rental);// rental 저장
+            // 도서 서비스에 도서 재고 감소를 위해 도서 대출 이벤트 발송
+            rentalProducer.updateBookStatus(bookId,"UNAVAILABLE");
 
-        // 도서 서비스에 도서 재고 감소를 위해 도서 대출 이벤트 발송
-        rentalProducer.updateBookStatus(bookId,"UNAVAILABLE");
+            // 도서 카탈로그 서비스에 대출된 도서로 상태를 변경하기 위한 이벤트 발송
+            rentalProducer.updateBookCatalogStatus(bookId,"RENT_BOOK");
 
-        // 도서 카탈로그 서비스에 대출된 도서로 상태를 변경하기 위한 이벤트 발송
-        rentalProducer.updateBookCatalogStatus(bookId,"RENT_BOOK");
+            //대출로 인한 사용자 포인트 적립을 위해 사용자 서비스에 이벤트 발송
+            rentalProducer.savePoints(userId,pointPerBooks);
 
-        //대출로 인한 사용자 포인트 적립을 위해 사용자 서비스에 이벤트 발송
-        rentalProducer.savePoints(userId,pointPerBooks);
+            return rental;
+        });
+    }
 
-        return rental;
+    @Override
+    @Transactional
+    public Rental rentBooks(Long userId, Map<Long, String> bookTitles) throws Exception {
+        return rentalMetrics.recordCommand("rentBooks", () -> {
+            Rental rental = findRentalForCommand(userId);
+            rental.checkRentalAvailable(bookTitles.size());// 대출할 도서 수를 포함해 한 번만 확인
+            rental = rental.rentBooks(bookTitles);
+            rentalRepository.save(rental);
+            rentalSummaryProjector.booksRented(rental, bookTitles.size());
+
+            // 도서별 이벤트는 outbox 에 기록되고 릴레이가 한 번에 발행한다
+            for (Long bookId : bookTitles.keySet()) {
+                rentalProducer.updateBookStatus(bookId, "UNAVAILABLE");
+                rentalProducer.updateBookCatalogStatus(bookId, "RENT_BOOK");
+            }
+            // 포인트는 대출한 도서 수만큼 한 번에 적립한다
+            rentalProducer.savePoints(userId, pointPerBooks * bookTitles.size());
+
+            return rental;
+        });
     }
 
     @Override
     @Transactional
     public Rental returnBooks(Long userId, Long bookId) throws Exception{
-        Rental rental = rentalRepository.findByUserId(userId).get();//반납 아이템 검사
-        rental = rental.returnBooks(bookId);// rental 도메인에 반납 처리 위임
-        rental = rentalRepository.save(rental);
+        return rentalMetrics.recordCommand("returnBooks", () -> {
+            Rental rental = findRentalForCommand(userId);//반납 아이템 검사
+            rental = rental.returnBooks(bookId);// rental 도메인에 반납 처리 위임
+            rental = rentalRepository.save(rental);
+            rentalSummaryProjector.bookReturned(rental);
 
-        // 도서 서비스에 도서 재고 증가를 위해 도서 대출 이벤트 발송
-        rentalProducer.updateBookStatus(bookId,"AVAILABLE");
+            // 도서 서비스에 도서 재고 증가를 위해 도서 대출 이벤트 발송
+            rentalProducer.updateBookStatus(bookId,"AVAILABLE");
 
-        // 도서 카탈로그 서비스에 대출 가능한 도서로 상태를 변경하기 위한 이벤트 발송
-        rentalProducer.updateBookCatalogStatus(bookId,"RETURN_BOOk");
+            // 도서 카탈로그 서비스에 대출 가능한 도서로 상태를 변경하기 위한 이벤트 발송
+            rentalProducer.updateBookCatalogStatus(bookId,"RETURN_BOOk");
 
-        return rental;
+            return rental;
+        });
     }
 
     @Override
     public Long beOverdueBook(Long rentalId, Long bookId) {
-        Rental rental = rentalRepository.findById(rentalId).get();//(1) 사용자 일련번호에 해당하는 rental 조회
-        rental = rental.overdueBook(bookId);//(2) 도서 연체 처리를 rental 객체에 위임해 처리한다
-        rental = rental.makeRentUnable();//(3) rental 대출 가능 여부 상태를 대출 불가로 설정
-        rentalRepository.save(rental);//(4) 저장
-        return bookId;
+        return rentalMetrics.recordCommand("beOverdueBook", () -> {
+            Rental rental = findRentalForCommandById(rentalId);//(1) rental 일련번호에 해당하는 rental 조회
+            rental = rental.overdueBook(bookId);//(2) 도서 연체 처리를 rental 객체에 위임해 처리한다
+            rental = rental.makeRentUnable();//(3) rental 대출 가능 여부 상태를 대출 불가로 설정
+            rentalRepository.save(rental);//(4) 저장
+            rentalSummaryProjector.bookOverdue(rental);
+            return bookId;
+        });
+    }
+
+    @Override
+    public int beOverdueBooks(List<ExpiredRentedItem> expiredItems) {
+        if (expiredItems.isEmpty()) {
+            return 0;
+        }
+        // (1) 청크의 rental 을 잠근 뒤 아이템을 다시 읽는다, 청크를 읽은 뒤 반납된 아이템은 빠진다
+        Set<Long> chunkRentalIds = expiredItems.stream().map(ExpiredRentedItem::getRentalId).collect(Collectors.toCollection(TreeSet::new));
+        rentalRepository.findAllByIdInForUpdate(chunkRentalIds);
+        List<ExpiredRentedItem> movedItems = rentedItemRepository.findExpiredByIdIn(
+            expiredItems.stream().map(ExpiredRentedItem::getId).collect(Collectors.toList()));
+        if (movedItems.isEmpty()) {
+            return 0;
+        }
+
+        // (2) 대출 아이템은 한 문장으로 지운다, 잠금 중이므로 다시 읽은 아이템이 모두 지워져야 한다
+        int deleted = rentedItemRepository.deleteByIdIn(movedItems.stream().map(ExpiredRentedItem::getId).collect(Collectors.toList()));
+        if (deleted != movedItems.size()) {
+            throw new ConcurrencyFailureException("Deleted " + deleted + " of " + movedItems.size() + " expired rented items");
+        }
+
+        // (3) 연체 아이템은 rental 을 읽지 않고 참조만 걸어 배치 insert 로 저장한다
+        List<OverdueItem> overdueItems = new ArrayList<>(movedItems.size());
+        for (ExpiredRentedItem expiredItem : movedItems) {
+            OverdueItem overdueItem = OverdueItem.createOverdueItem(expiredItem.getBookId(), expiredItem.getBookTitle(), expiredItem.getDueDate());
+            overdueItem.setRental(rentalRepository.getOne(expiredItem.getRentalId()));
+            overdueItems.add(overdueItem);
+        }
+        overdueItemRepository.saveAll(overdueItems);
+        overdueItemRepository.flush();
+
+        // (4) 연체 도서 수가 같은 rental 끼리 묶어 대출 불가 처리와 연체료 부과를 한 문장으로 처리한다
+        Map<Long, Long> overdueCounts = movedItems.stream()
+            .collect(Collectors.groupingBy(ExpiredRentedItem::getRentalId, Collectors.counting()));
+        Map<Long, List<Long>> rentalIdsByCount = overdueCounts.entrySet().stream()
+            .collect(Collectors.groupingBy(Map.Entry::getValue, TreeMap::new,
+                Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+        rentalIdsByCount.forEach((count, rentalIds) -> {
+            rentalRepository.updateStatusAndAddLateFee(rentalIds, RentalStatus.RENT_UNAVAILABLE, count * Rental.LATE_FEE_PER_BOOK);
+            rentalSummaryProjector.itemsExpired(rentalIds, count.intValue(), count * Rental.LATE_FEE_PER_BOOK);
+        });
+
+        // (5) 연체 아이템을 rental 컬렉션을 거치지 않고 저장했으므로 2차 캐시의 overdueItems 컬렉션을 비운다
+        evictOverdueItems(overdueCounts.keySet());
+        log.debug("Marked {} rented items of {} rentals overdue", movedItems.size(), overdueCounts.size());
+        return movedItems.size();
+    }
+
+    private void evictOverdueItems(Collection<Long> rentalIds) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache().unwrap(Cache.class);
+        rentalIds.forEach(rentalId -> cache.evictCollectionData(OVERDUE_ITEMS_ROLE, rentalId));
+        // 커밋 전에 다른 트랜잭션이 이전 컬렉션을 다시 캐시했을 수 있다
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    rentalIds.forEach(rentalId -> cache.evictCollectionData(OVERDUE_ITEMS_ROLE, rentalId));
+                }
+            });
+        }
     }
 
     @Override
     public Rental returnOverdueBook(Long userId, Long bookId) throws  Exception{
-        Rental rental = rentalRepository.findByUserId(userId).get();//(1) 사용자 일련번호에 해당하는 rental 조회
-        rental = rental.returnOverdueBook(bookId);//(2) 도서 연체 처리를 rental 객체에 위임해 처리한다
-        rentalProducer.updateBookStatus(bookId,"AVAILABLE");
-        rentalProducer.updateBookCatalogStatus(bookId, "RETURN_BOOK");//(3) rental 대출 가능 여부 상태를 대출 불가로 설정
-        return rentalRepository.save(rental);//(4) 저장
+        return rentalMetrics.recordCommand("returnOverdueBook", () -> {
+            Rental rental = findRentalForCommand(userId);//(1) 사용자 일련번호에 해당하는 rental 조회
+            ReturnedItem returnedItem = rental.returnOverdueBook(bookId);//(2) 도서 연체 처리를 rental 객체에 위임해 처리한다
+            returnedItemRepository.save(returnedItem);// 반납 이력은 rental 의 컬렉션을 읽지 않고 바로 추가한다
+            rentalProducer.updateBookStatus(bookId,"AVAILABLE");
+            rentalProducer.updateBookCatalogStatus(bookId, "RETURN_BOOK");//(3) rental 대출 가능 여부 상태를 대출 불가로 설정
+            rental = rentalRepository.save(rental);//(4) 저장
+            rentalSummaryProjector.overdueBookReturned(rental);
+            return rental;
+        });
     }
 
     //대출 불가 해제 처리
     @Override
     public Rental releaseOverdue(Long userId) {
-        Rental rental = rentalRepository.findByUserId(userId).get();
-        rental = rental.releaseOverdue();
-        return rentalRepository.save(rental);
+        return rentalMetrics.recordCommand("releaseOverdue", () -> {
+            Rental rental = findRentalForCommand(userId);
+            rental = rental.releaseOverdue();
+            rental = rentalRepository.save(rental);
+            rentalSummaryProjector.overdueReleased(rental);
+            return rental;
+        });
+    }
+
+    @Override
+    public void applyStockChangeResults(List<StockChangeResult> results) throws Exception {
+        for (StockChangeResult result : results) {
+            // 도서 서비스가 대출(재고 감소)에 실패한 경우에만 보상 처리가 필요하다
+            if (result.isFailure() && "UNAVAILABLE".equals(result.getBookStatus())) {
+                cancelRentBook(result.getBookId());
+            } else if (result.isFailure()) {
+                log.warn("Book service failed to change stock of book {} to {}", result.getBookId(), result.getBookStatus());
+            }
+        }
+    }
+
+    /**
+     * Loads the rental of a user for a command that changes it, according to the configured
+     * {@link ApplicationProperties.ConcurrencyMode}.
+     * <p>
+     * The rental id comes from the {@link RentalIdCache}, so in optimistic mode the rental is a primary key load
+     * served by the second-level cache, and its version is incremented on commit. A cached id that no longer
+     * belongs to the user is evicted and the rental is looked up by user id.
+     */
+    private Rental findRentalForCommand(Long userId) {
+        ApplicationProperties.ConcurrencyMode mode = applicationProperties.getRental().getConcurrencyMode();
+        Optional<Long> rentalId = rentalIdCache.findRentalId(userId);
+        Optional<Rental> rental = rentalId.flatMap(id -> findById(id, mode));
+        if (!rental.filter(found -> userId.equals(found.getUserId())).isPresent()) {
+            rentalId.ifPresent(id -> rentalIdCache.evict(userId));
+            Rental found = findRentalForCommandByUserId(userId, mode);
+            rentalIdCache.put(userId, found.getId());
+            return found;
+        }
+        if (mode == ApplicationProperties.ConcurrencyMode.OPTIMISTIC) {
+            entityManager.lock(rental.get(), LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+        }
+        return rental.get();
+    }
+
+    private Rental findRentalForCommandById(Long rentalId) {
+        ApplicationProperties.ConcurrencyMode mode = applicationProperties.getRental().getConcurrencyMode();
+        Rental rental = findById(rentalId, mode).get();
+        if (mode == ApplicationProperties.ConcurrencyMode.OPTIMISTIC) {
+            entityManager.lock(rental, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+        }
+        return rental;
+    }
+
+    private Optional<Rental> findById(Long rentalId, ApplicationProperties.ConcurrencyMode mode) {
+        if (mode == ApplicationProperties.ConcurrencyMode.PESSIMISTIC) {
+            // 행 잠금을 얻을 때까지 기다린 시간을 기록한다
+            Timer lockWait = meterRegistry.timer("rental.concurrency.lock.wait", "mode", "pessimistic");
+            return lockWait.record(() ->
+                Optional.ofNullable(entityManager.find(Rental.class, rentalId, LockModeType.PESSIMISTIC_WRITE, PESSIMISTIC_LOCK_HINTS)));
+        }
+        return rentalRepository.findById(rentalId);
+    }
+
+    private Rental findRentalForCommandByUserId(Long userId, ApplicationProperties.ConcurrencyMode mode) {
+        if (mode == ApplicationProperties.ConcurrencyMode.PESSIMISTIC) {
+            Timer lockWait = meterRegistry.timer("rental.concurrency.lock.wait", "mode", "pessimistic");
+            return lockWait.record(() -> rentalRepository.findByUserIdForUpdate(userId)).get();
+        }
+        return rentalRepository.findByUserIdForIncrement(userId).get();
+    }
+
+    private void evictPreviousUser(Long rentalId, Long userId) {
+        // 다른 사용자에게 옮겨지는 rental 이면 이전 사용자의 캐시된 id 를 지운다
+        rentalRepository.findById(rentalId).map(Rental::getUserId)
+            .filter(previousUserId -> !previousUserId.equals(userId))
+            .ifPresent(rentalIdCache::evict);
+    }
+
+    //대출 취소(보상) 처리
+    private void cancelRentBook(Long bookId) throws Exception {
+        Optional<RentedItem> rentedItem = rentedItemRepository.findByBookId(bookId);
+        if (!rentedItem.isPresent()) {
+            log.warn("No rented item to cancel for book {}", bookId);
+            return;
+        }
+        Rental rental = rentedItem.get().getRental();
+        rental = rental.returnBooks(bookId);
+        rentalRepository.save(rental);
+        rentalSummaryProjector.bookReturned(rental);
+
+        // 대출 시 발송했던 카탈로그 상태 변경과 포인트 적립을 되돌린다
+        rentalProducer.updateBookCatalogStatus(bookId, "RETURN_BOOK");
+        rentalProducer.savePoints(rental.getUserId(), -pointPerBooks);
     }
 
 
@@ -2,6 +2,7 @@ package com.my.rental.service.impl;
 
 import com.my.rental.service.RentedItemService;
 import com.my.rental.domain.RentedItem;
+import com.my.rental.domain.enumeration.RentalStatus;
 import com.my.rental.repository.RentedItemRepository;
 import com.my.rental.web.rest.dto.RentedItemDTO;
 import com.my.rental.web.rest.mapper.RentedItemMapper;
@@ -9,11 +10,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+
+import java.time.LocalDate;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service Implementation for managing {@link RentedItem}.
@@ -28,9 +36,13 @@ public class RentedItemServiceImpl implements RentedItemService {
 
     private final RentedItemMapper rentedItemMapper;
 
-    public RentedItemServiceImpl(RentedItemRepository rentedItemRepository, RentedItemMapper rentedItemMapper) {
+    private final EntityManager entityManager;
+
+    public RentedItemServiceImpl(RentedItemRepository rentedItemRepository, RentedItemMapper rentedItemMapper,
+                                 EntityManager entityManager) {
         this.rentedItemRepository = rentedItemRepository;
         this.rentedItemMapper = rentedItemMapper;
+        this.entityManager = entityManager;
     }
 
     /**
@@ -59,6 +71,56 @@ public class RentedItemServiceImpl implements RentedItemService {
             .map(rentedItemMapper::toDto);
     }
 
+    /**
+     * Get the rentedItems after an id, in id order, without counting them.
+     *
+     * @param afterId the id of the last rentedItem of the previous slice.
+     * @param size    the maximum number of rentedItems.
+     * @return the slice of entities.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<RentedItemDTO> findAllAfter(Long afterId, int size) {
+        log.debug("Request to get {} RentedItems after {}", size, afterId);
+        return rentedItemRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, size))
+            .map(rentedItemMapper::toDto);
+    }
+
+    /**
+     * Pass every rentedItem matching the filters to a consumer in id order, with its rental.
+     *
+     * @param dueFrom      the first due date, or {@code null}.
+     * @param dueTo        the last due date, or {@code null}.
+     * @param rentalStatus the status of the rentals of the rentedItems, or {@code null}.
+     * @param consumer     the consumer of the rentedItems.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportRentedItems(LocalDate dueFrom, LocalDate dueTo, RentalStatus rentalStatus, Consumer<RentedItem> consumer) {
+        log.debug("Request to export RentedItems due from {} to {} of rentals {}", dueFrom, dueTo, rentalStatus);
+        try (Stream<RentedItem> rentedItems = rentedItemRepository.streamAll(dueFrom, dueTo, rentalStatus)) {
+            rentedItems.forEach(rentedItem -> {
+                consumer.accept(rentedItem);
+                // rental 은 다음 행에서 다시 만들어지므로 함께 분리한다
+                entityManager.detach(rentedItem);
+                if (rentedItem.getRental() != null) {
+                    entityManager.detach(rentedItem.getRental());
+                }
+            });
+        }
+    }
+
+    /**
+     * Count all the rentedItems.
+     *
+     * @return the number of entities.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long count() {
+        return rentedItemRepository.count();
+    }
+
 
     /**
      * Get one rentedItem by id.
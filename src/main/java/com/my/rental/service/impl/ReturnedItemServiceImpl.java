@@ -0,0 +1,47 @@
+package com.my.rental.service.impl;
+
+import com.my.rental.domain.ReturnedItem;
+import com.my.rental.repository.ReturnedItemRepository;
+import com.my.rental.service.RentalIdCache;
+import com.my.rental.service.ReturnedItemService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service Implementation for reading {@link ReturnedItem}.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ReturnedItemServiceImpl implements ReturnedItemService {
+
+    private final Logger log = LoggerFactory.getLogger(ReturnedItemServiceImpl.class);
+
+    private final RentalIdCache rentalIdCache;
+
+    private final ReturnedItemRepository returnedItemRepository;
+
+    public ReturnedItemServiceImpl(RentalIdCache rentalIdCache, ReturnedItemRepository returnedItemRepository) {
+        this.rentalIdCache = rentalIdCache;
+        this.returnedItemRepository = returnedItemRepository;
+    }
+
+    /**
+     * Get a page of the returnedItems of a user.
+     *
+     * @param userId the id of the user.
+     * @param pageable the pagination information.
+     * @return the page of entities, empty if the user has no rental.
+     */
+    @Override
+    public Page<ReturnedItem> findAllByUserId(Long userId, Pageable pageable) {
+        log.debug("Request to get a page of ReturnedItems of user : {}", userId);
+        return rentalIdCache.findRentalId(userId)
+            .map(rentalId -> returnedItemRepository.findByRentalId(rentalId, pageable))
+            .orElse(Page.empty(pageable));
+    }
+}
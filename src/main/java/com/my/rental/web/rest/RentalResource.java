@@ -1,38 +1,48 @@
 package com.my.rental.web.rest;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.my.rental.adaptor.BookClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.my.rental.adaptor.BookInfoCache;
 import com.my.rental.domain.Rental;
+import com.my.rental.domain.enumeration.RentalStatus;
+import com.my.rental.service.RentalCommandExecutor;
 import com.my.rental.service.RentalService;
 import com.my.rental.web.rest.dto.BookInfoDTO;
 import com.my.rental.web.rest.errors.BadRequestAlertException;
+import com.my.rental.web.rest.util.KeysetPaginationUtil;
+import com.my.rental.web.rest.util.NdjsonWriter;
 import com.my.rental.web.rest.dto.RentalDTO;
 
 import com.my.rental.web.rest.mapper.RentalMapper;
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.PaginationUtil;
 import io.github.jhipster.web.util.ResponseUtil;
-import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * REST controller for managing {@link com.my.rental.domain.Rental}.
  */
 @RestController
-@RequiredArgsConstructor
 @RequestMapping("/api")
 public class RentalResource {
 
@@ -40,17 +50,23 @@ public class RentalResource {
 
     private static final String ENTITY_NAME = "rentalRental";
 
-    private final BookClient bookClient;
+    private final BookInfoCache bookInfoCache;
     private final UserClient userClient;
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final RentalService rentalService;
     private final RentalMapper rentalMapper;
-    public RentalResource(RentalService rentalService,RentalMapper rentalMapper, BookClient bookClient, UserClient userClient) {
+    private final RentalCommandExecutor rentalCommandExecutor;
+    private final ObjectMapper objectMapper;
+    public RentalResource(RentalService rentalService,RentalMapper rentalMapper, BookInfoCache bookInfoCache, UserClient userClient,
+                          RentalCommandExecutor rentalCommandExecutor,
+                          ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
         this.rentalMapper = rentalMapper;
+        this.rentalCommandExecutor = rentalCommandExecutor;
         this.rentalService = rentalService;
-        this.bookClient = bookClient;
+        this.bookInfoCache = bookInfoCache;
         this.userClient = userClient;
     }
 
@@ -78,7 +94,7 @@ public class RentalResource {
      *
      * @param rentalDTO the rentalDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated rentalDTO,
-     * or with status {@code 400 (Bad Request)} if the rentalDTO is not valid,
+     * or with status {@code 400 (Bad Request)} if the rentalDTO is not valid or has no version,
      * or with status {@code 500 (Internal Server Error)} if the rentalDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -88,6 +104,10 @@ public class RentalResource {
         if (rentalDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
+        // 버전이 없으면 낙관적 잠금 검사 없이 새 엔티티로 저장되므로 거절한다
+        if (rentalDTO.getVersion() == null) {
+            throw new BadRequestAlertException("Invalid version", ENTITY_NAME, "versionnull");
+        }
         RentalDTO result = rentalMapper.toDto(rentalService.save(rentalMapper.toEntity(rentalDTO)));
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, rentalDTO.getId().toString()))
@@ -108,6 +128,47 @@ public class RentalResource {
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /rentals?after=:id&size=:size} : get the rentals after an id, in id order.
+     * <p>
+     * The rentals are read with an index seek on the id, and counted only when {@code count} is {@code true}.
+     *
+     * @param after the id of the last rental of the previous page, {@code 0} for the first page.
+     * @param size  the maximum number of rentals.
+     * @param count whether to send the total number of rentals in the {@code X-Total-Count} header.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of rentals in body,
+     * or with status {@code 400 (Bad Request)} if the size is not valid.
+     */
+    @GetMapping(value = "/rentals", params = KeysetPaginationUtil.AFTER_PARAMETER)
+    public ResponseEntity<List<RentalDTO>> getAllRentalsAfter(@RequestParam Long after,
+                                                          @RequestParam(defaultValue = "20") int size,
+                                                          @RequestParam(defaultValue = "false") boolean count) {
+        log.debug("REST request to get {} Rentals after {}", size, after);
+        if (size < 1 || size > KeysetPaginationUtil.MAX_SIZE) {
+            throw new BadRequestAlertException("Invalid size", ENTITY_NAME, "invalidsize");
+        }
+        Slice<RentalDTO> slice = rentalService.findAllAfter(after, size);
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice, RentalDTO::getId, count ? rentalService.count() : null);
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /rentals/export} : export the rentals as newline delimited JSON, streamed from the database.
+     *
+     * @param status   the status of the rentals to export, all the rentals when absent.
+     * @param response the response the rentals are written to.
+     * @throws IOException if the response cannot be written.
+     */
+    @GetMapping(value = "/rentals/export", produces = NdjsonWriter.APPLICATION_NDJSON_VALUE)
+    public void exportRentals(@RequestParam(required = false) RentalStatus status, HttpServletResponse response) throws IOException {
+        log.debug("REST request to export Rentals of status {}", status);
+        response.setContentType(NdjsonWriter.APPLICATION_NDJSON_VALUE);
+        try (NdjsonWriter writer = new NdjsonWriter(objectMapper, response.getOutputStream())) {
+            rentalService.exportRentals(status, rental -> writer.write(rentalMapper.toDto(rental)));
+        }
+    }
+
     /**
      * {@code GET  /rentals/:id} : get the "id" rental.
      *
@@ -147,16 +208,48 @@ public class RentalResource {
     public ResponseEntity<RentalDTO> rentBooks(@PathVariable("userId") Long userId,
                                                @PathVariable("book") Long bookId) throws Exception {
         log.debug("rent book request");
-        // 도서 서비스 호출해 도서 정보 가져오기(동기 호출 방식인 페인을 사용)
-        ResponseEntity<BookInfoDTO> bookInfoResult = bookClient.findBookInfo(bookId); //feign - 책 정보 가져오기
-        BookInfoDTO bookInfoDTO = bookInfoResult.getBody();
-        log.debug("book info list", bookInfoDTO.toString());
+        // 도서 정보 가져오기(캐시에 없을 때만 페인으로 도서 서비스를 동기 호출)
+        BookInfoDTO bookInfoDTO = bookInfoCache.findBookInfo(bookId);
+        log.debug("book info {}", bookInfoDTO);
 
-        Rental rental= rentalService.rentBook(userId, bookInfoDTO.getId(), bookInfoDTO.getTitle());
+        // 같은 사용자의 명령은 한 레인에서 차례로 실행하고, 다른 인스턴스의 요청과 충돌하면 트랜잭션만 다시 실행한다
+        Rental rental = rentalCommandExecutor.execute(userId, () ->
+            rentalService.rentBook(userId, bookInfoDTO.getId(), bookInfoDTO.getTitle()));
         RentalDTO rentalDTO = rentalMapper.toDto(rental);
         return ResponseEntity.ok().body(rentalDTO);
     }
 
+    /**
+     * 여러 도서 한 번에 대출 하기
+     *
+     * @param userId  the id of the user.
+     * @param bookIds the ids of the books to rent.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the rentalDTO,
+     * or with status {@code 400 (Bad Request)} if a book is unknown to the book service.
+     */
+    @PostMapping("/rentals/{userId}/RentedItems")
+    public ResponseEntity<RentalDTO> rentBookList(@PathVariable("userId") Long userId,
+                                                  @RequestBody List<Long> bookIds) throws Exception {
+        log.debug("REST request to rent books {} for user {}", bookIds, userId);
+        Set<Long> requestedBookIds = new LinkedHashSet<>(bookIds);
+        if (requestedBookIds.isEmpty()) {
+            throw new BadRequestAlertException("No book to rent", ENTITY_NAME, "nobook");
+        }
+        // 도서 정보는 캐시에 없는 도서만 모아 한 번에 조회한다
+        Map<Long, BookInfoDTO> bookInfos = bookInfoCache.findBookInfos(requestedBookIds);
+        Map<Long, String> bookTitles = new LinkedHashMap<>();
+        for (Long bookId : requestedBookIds) {
+            BookInfoDTO bookInfoDTO = bookInfos.get(bookId);
+            if (bookInfoDTO == null) {
+                throw new BadRequestAlertException("Unknown book " + bookId, ENTITY_NAME, "booknotfound");
+            }
+            bookTitles.put(bookId, bookInfoDTO.getTitle());
+        }
+
+        Rental rental = rentalCommandExecutor.execute(userId, () -> rentalService.rentBooks(userId, bookTitles));
+        return ResponseEntity.ok().body(rentalMapper.toDto(rental));
+    }
+
     /**
      * 도서 반납 하기
      *
@@ -166,7 +259,7 @@ public class RentalResource {
      */
     @DeleteMapping("/rentals/{userId}/RentedItem/{book}")
     public ResponseEntity returnBooks(@PathVariable("userId") Long userId, @PathVariable("book") Long book) throws  Exception {
-        Rental rental = rentalService.returnBooks(userId, book); // 도서반납 서비스 로직 실행
+        Rental rental = rentalCommandExecutor.execute(userId, () -> rentalService.returnBooks(userId, book)); // 도서반납 서비스 로직 실행
         log.debug("returned books");
         log.debug("SEND BOOKIDS for Book: {}", book);
 
@@ -0,0 +1,57 @@
+package com.my.rental.web.rest;
+
+import com.my.rental.security.AuthoritiesConstants;
+import com.my.rental.service.RentalService;
+import com.my.rental.web.rest.dto.RentalSummaryDTO;
+import com.my.rental.web.rest.mapper.RentalSummaryMapper;
+import io.github.jhipster.web.util.ResponseUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Optional;
+
+/**
+ * REST controller for reading the {@link com.my.rental.domain.RentalSummary} read model.
+ */
+@RestController
+@RequestMapping("/api")
+public class RentalSummaryResource {
+
+    private final Logger log = LoggerFactory.getLogger(RentalSummaryResource.class);
+
+    private final RentalService rentalService;
+    private final RentalSummaryMapper rentalSummaryMapper;
+
+    public RentalSummaryResource(RentalService rentalService, RentalSummaryMapper rentalSummaryMapper) {
+        this.rentalService = rentalService;
+        this.rentalSummaryMapper = rentalSummaryMapper;
+    }
+
+    /**
+     * {@code GET  /rental-summaries/:userId} : get the rental summary of a user, without loading the rental.
+     *
+     * @param userId the id of the user.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the rentalSummaryDTO, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/rental-summaries/{userId}")
+    public ResponseEntity<RentalSummaryDTO> getRentalSummary(@PathVariable Long userId) {
+        log.debug("REST request to get the RentalSummary of user : {}", userId);
+        Optional<RentalSummaryDTO> rentalSummaryDTO = rentalService.findSummary(userId).map(rentalSummaryMapper::toDto);
+        return ResponseUtil.wrapOrNotFound(rentalSummaryDTO);
+    }
+
+    /**
+     * {@code POST  /rental-summaries/rebuild} : recompute all the rental summaries from the rental and item tables.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the number of summaries written.
+     */
+    @PostMapping("/rental-summaries/rebuild")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Long> rebuildRentalSummaries() {
+        log.debug("REST request to rebuild the RentalSummaries");
+        return ResponseEntity.ok(rentalService.rebuildSummaries());
+    }
+}
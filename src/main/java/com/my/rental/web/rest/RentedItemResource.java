@@ -1,7 +1,12 @@
 package com.my.rental.web.rest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.my.rental.domain.RentedItem;
+import com.my.rental.domain.enumeration.RentalStatus;
 import com.my.rental.service.RentedItemService;
 import com.my.rental.web.rest.errors.BadRequestAlertException;
+import com.my.rental.web.rest.util.KeysetPaginationUtil;
+import com.my.rental.web.rest.util.NdjsonWriter;
 import com.my.rental.web.rest.dto.RentedItemDTO;
 
 import com.my.rental.web.rest.mapper.RentedItemMapper;
@@ -13,13 +18,18 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -40,9 +50,12 @@ public class RentedItemResource {
     private final RentedItemService rentedItemService;
     private final RentedItemMapper rentedItemMapper;
 
-    public RentedItemResource(RentedItemService rentedItemService, RentedItemMapper rentedItemMapper) {
+    private final ObjectMapper objectMapper;
+
+    public RentedItemResource(RentedItemService rentedItemService, RentedItemMapper rentedItemMapper, ObjectMapper objectMapper) {
         this.rentedItemService = rentedItemService;
         this.rentedItemMapper = rentedItemMapper;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -99,6 +112,52 @@ public class RentedItemResource {
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /rented-items?after=:id&size=:size} : get the rentedItems after an id, in id order.
+     * <p>
+     * The rentedItems are read with an index seek on the id, and counted only when {@code count} is {@code true}.
+     *
+     * @param after the id of the last rentedItem of the previous page, {@code 0} for the first page.
+     * @param size  the maximum number of rentedItems.
+     * @param count whether to send the total number of rentedItems in the {@code X-Total-Count} header.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of rentedItems in body,
+     * or with status {@code 400 (Bad Request)} if the size is not valid.
+     */
+    @GetMapping(value = "/rented-items", params = KeysetPaginationUtil.AFTER_PARAMETER)
+    public ResponseEntity<List<RentedItemDTO>> getAllRentedItemsAfter(@RequestParam Long after,
+                                                          @RequestParam(defaultValue = "20") int size,
+                                                          @RequestParam(defaultValue = "false") boolean count) {
+        log.debug("REST request to get {} RentedItems after {}", size, after);
+        if (size < 1 || size > KeysetPaginationUtil.MAX_SIZE) {
+            throw new BadRequestAlertException("Invalid size", ENTITY_NAME, "invalidsize");
+        }
+        Slice<RentedItemDTO> slice = rentedItemService.findAllAfter(after, size);
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice, RentedItemDTO::getId, count ? rentedItemService.count() : null);
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /rented-items/export} : export the rentedItems as newline delimited JSON, streamed from the database.
+     *
+     * @param dueFrom      the first due date of the rentedItems to export, optional.
+     * @param dueTo        the last due date of the rentedItems to export, optional.
+     * @param rentalStatus the status of the rentals of the rentedItems to export, optional.
+     * @param response     the response the rentedItems are written to.
+     * @throws IOException if the response cannot be written.
+     */
+    @GetMapping(value = "/rented-items/export", produces = NdjsonWriter.APPLICATION_NDJSON_VALUE)
+    public void exportRentedItems(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+                                  @RequestParam(required = false) RentalStatus rentalStatus,
+                                  HttpServletResponse response) throws IOException {
+        log.debug("REST request to export RentedItems due from {} to {} of rentals {}", dueFrom, dueTo, rentalStatus);
+        response.setContentType(NdjsonWriter.APPLICATION_NDJSON_VALUE);
+        try (NdjsonWriter writer = new NdjsonWriter(objectMapper, response.getOutputStream())) {
+            rentedItemService.exportRentedItems(dueFrom, dueTo, rentalStatus, rentedItem -> writer.write(rentedItemMapper.toDto(rentedItem)));
+        }
+    }
+
     /**
      * {@code GET  /rented-items/:id} : get the "id" rentedItem.
      *
@@ -0,0 +1,51 @@
+package com.my.rental.web.rest;
+
+import com.my.rental.domain.ReturnedItem;
+import com.my.rental.service.ReturnedItemService;
+import com.my.rental.web.rest.dto.ReturnedItemDTO;
+
+import com.my.rental.web.rest.mapper.ReturnedItemMapper;
+import io.github.jhipster.web.util.PaginationUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for reading the {@link com.my.rental.domain.ReturnedItem} history.
+ */
+@RestController
+@RequestMapping("/api")
+public class ReturnedItemResource {
+
+    private final Logger log = LoggerFactory.getLogger(ReturnedItemResource.class);
+
+    private final ReturnedItemService returnedItemService;
+    private final ReturnedItemMapper returnedItemMapper;
+
+    public ReturnedItemResource(ReturnedItemService returnedItemService, ReturnedItemMapper returnedItemMapper) {
+        this.returnedItemService = returnedItemService;
+        this.returnedItemMapper = returnedItemMapper;
+    }
+
+    /**
+     * {@code GET  /rentals/:userId/returned-items} : get the returnedItems of a user.
+     *
+     * @param userId the id of the user.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of returnedItems in body.
+     */
+    @GetMapping("/rentals/{userId}/returned-items")
+    public ResponseEntity<List<ReturnedItemDTO>> getReturnedItems(@PathVariable Long userId, Pageable pageable) {
+        log.debug("REST request to get a page of ReturnedItems of user : {}", userId);
+        Page<ReturnedItem> page = returnedItemService.findAllByUserId(userId, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(returnedItemMapper.toDto(page.getContent()));
+    }
+}
@@ -14,6 +14,7 @@ public class RentalDTO implements Serializable {
 
     private RentalStatus rentalStatus;
 
+    private Long version;
 
     public Long getId() {
         return id;
@@ -39,6 +40,14 @@ public class RentalDTO implements Serializable {
         this.rentalStatus = rentalStatus;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -63,6 +72,7 @@ public class RentalDTO implements Serializable {
             "id=" + getId() +
             ", userId=" + getUserId() +
             ", rentalStatus='" + getRentalStatus() + "'" +
+            ", version=" + getVersion() +
             "}";
     }
 }
@@ -0,0 +1,96 @@
+package com.my.rental.web.rest.dto;
+
+import com.my.rental.domain.enumeration.RentalStatus;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * A DTO for the {@link com.my.rental.domain.RentalSummary} read model.
+ */
+public class RentalSummaryDTO implements Serializable {
+
+    private Long userId;
+
+    private Long rentalId;
+
+    private RentalStatus rentalStatus;
+
+    private long lateFee;
+
+    private int rentedCount;
+
+    private int overdueCount;
+
+    private LocalDate nextDueDate;
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getRentalId() {
+        return rentalId;
+    }
+
+    public void setRentalId(Long rentalId) {
+        this.rentalId = rentalId;
+    }
+
+    public RentalStatus getRentalStatus() {
+        return rentalStatus;
+    }
+
+    public void setRentalStatus(RentalStatus rentalStatus) {
+        this.rentalStatus = rentalStatus;
+    }
+
+    public long getLateFee() {
+        return lateFee;
+    }
+
+    public void setLateFee(long lateFee) {
+        this.lateFee = lateFee;
+    }
+
+    public int getRentedCount() {
+        return rentedCount;
+    }
+
+    public void setRentedCount(int rentedCount) {
+        this.rentedCount = rentedCount;
+    }
+
+    public int getOverdueCount() {
+        return overdueCount;
+    }
+
+    public void setOverdueCount(int overdueCount) {
+        this.overdueCount = overdueCount;
+    }
+
+    public LocalDate getNextDueDate() {
+        return nextDueDate;
+    }
+
+    public void setNextDueDate(LocalDate nextDueDate) {
+        this.nextDueDate = nextDueDate;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RentalSummaryDTO{" +
+            "userId=" + getUserId() +
+            ", rentalId=" + getRentalId() +
+            ", rentalStatus='" + getRentalStatus() + "'" +
+            ", lateFee=" + getLateFee() +
+            ", rentedCount=" + getRentedCount() +
+            ", overdueCount=" + getOverdueCount() +
+            ", nextDueDate='" + getNextDueDate() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,90 @@
+package com.my.rental.web.rest.dto;
+
+import java.time.LocalDate;
+import java.io.Serializable;
+
+/**
+ * A DTO for the {@link com.my.rental.domain.ReturnedItem} entity.
+ */
+public class ReturnedItemDTO implements Serializable {
+
+    private Long id;
+
+    private Long bookId;
+
+    private String bookTitle;
+
+    private LocalDate returnedDate;
+
+
+    private Long rentalId;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(Long bookId) {
+        this.bookId = bookId;
+    }
+
+    public String getBookTitle() {
+        return bookTitle;
+    }
+
+    public void setBookTitle(String bookTitle) {
+        this.bookTitle = bookTitle;
+    }
+
+    public LocalDate getReturnedDate() {
+        return returnedDate;
+    }
+
+    public void setReturnedDate(LocalDate returnedDate) {
+        this.returnedDate = returnedDate;
+    }
+
+    public Long getRentalId() {
+        return rentalId;
+    }
+
+    public void setRentalId(Long rentalId) {
+        this.rentalId = rentalId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ReturnedItemDTO)) {
+            return false;
+        }
+
+        return id != null && id.equals(((ReturnedItemDTO) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ReturnedItemDTO{" +
+            "id=" + getId() +
+            ", bookId=" + getBookId() +
+            ", bookTitle='" + getBookTitle() + "'" +
+            ", returnedDate='" + getReturnedDate() + "'" +
+            ", rentalId=" + getRentalId() +
+            "}";
+    }
+}
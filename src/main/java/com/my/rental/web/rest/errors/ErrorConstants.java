@@ -6,6 +6,11 @@ public final class ErrorConstants {
 
     public static final String ERR_CONCURRENCY_FAILURE = "error.concurrencyFailure";
     public static final String ERR_VALIDATION = "error.validation";
+    public static final String ERR_RENTAL_ITEM_NOT_FOUND = "error.rentalItemNotFound";
+    public static final String ERR_BOOK_ALREADY_RENTED = "error.bookAlreadyRented";
+    public static final String ERR_RENTAL_COMMAND_REJECTED = "error.rentalCommandRejected";
+    public static final String ERR_RENTAL_COMMAND_TIMEOUT = "error.rentalCommandTimeout";
+    public static final String ERR_INVALID_BOOK_INFO = "error.invalidBookInfo";
     public static final String PROBLEM_BASE_URL = "https://www.jhipster.tech/problem";
     public static final URI DEFAULT_TYPE = URI.create(PROBLEM_BASE_URL + "/problem-with-message");
     public static final URI CONSTRAINT_VIOLATION_TYPE = URI.create(PROBLEM_BASE_URL + "/constraint-violation");
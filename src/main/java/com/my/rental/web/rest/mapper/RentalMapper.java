@@ -2,6 +2,7 @@ package com.my.rental.web.rest.mapper;
 
 
 import com.my.rental.domain.*;
+import com.my.rental.repository.RentalListItem;
 import com.my.rental.web.rest.dto.RentalDTO;
 
 import org.mapstruct.*;
@@ -12,7 +13,7 @@ import org.mapstruct.*;
 @Mapper(componentModel = "spring", uses = {})
 public interface RentalMapper extends EntityMapper<RentalDTO, Rental> {
 
-
+    RentalDTO toDto(RentalListItem rentalListItem);
 
     default Rental fromId(Long id) {
         if (id == null) {
@@ -0,0 +1,17 @@
+package com.my.rental.web.rest.mapper;
+
+
+import com.my.rental.domain.RentalSummary;
+import com.my.rental.web.rest.dto.RentalSummaryDTO;
+
+import org.mapstruct.*;
+
+/**
+ * Mapper for the read model {@link RentalSummary} and its DTO {@link RentalSummaryDTO}. The read model is only
+ * written by the rental commands, so there is no mapping back to the entity.
+ */
+@Mapper(componentModel = "spring", uses = {})
+public interface RentalSummaryMapper {
+
+    RentalSummaryDTO toDto(RentalSummary rentalSummary);
+}
@@ -0,0 +1,65 @@
+package com.my.rental.web.rest.util;
+
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Utility class for handling keyset (seek) pagination, where a page is requested with
+ * {@code ?after=<id>&size=<n>} instead of a page number.
+ * <p>
+ * Unlike {@link io.github.jhipster.web.util.PaginationUtil}, the total count is only sent when it was asked for,
+ * and the links only go forward: the {@code next} link carries the id of the last element of the slice.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String AFTER_PARAMETER = "after";
+    public static final String SIZE_PARAMETER = "size";
+    public static final int MAX_SIZE = 2000;
+
+    private static final String HEADER_X_TOTAL_COUNT = "X-Total-Count";
+    private static final String HEADER_LINK_FORMAT = "<{0}>; rel=\"{1}\"";
+
+    private KeysetPaginationUtil() {
+    }
+
+    /**
+     * Generate pagination headers for a Spring Data {@link Slice} read after a key.
+     *
+     * @param uriBuilder The URI builder of the current request.
+     * @param slice      The slice.
+     * @param idOf       The function returning the key of an element.
+     * @param totalCount The total number of elements, or {@code null} when it was not counted.
+     * @param <T>        The type of object.
+     * @return http header.
+     */
+    public static <T> HttpHeaders generateKeysetHttpHeaders(UriComponentsBuilder uriBuilder, Slice<T> slice,
+                                                            Function<T, Long> idOf, Long totalCount) {
+        HttpHeaders headers = new HttpHeaders();
+        if (totalCount != null) {
+            headers.add(HEADER_X_TOTAL_COUNT, Long.toString(totalCount));
+        }
+        StringBuilder link = new StringBuilder();
+        List<T> content = slice.getContent();
+        if (slice.hasNext() && !content.isEmpty()) {
+            Long lastId = idOf.apply(content.get(content.size() - 1));
+            link.append(prepareLink(uriBuilder, lastId, slice.getSize(), "next")).append(",");
+        }
+        link.append(prepareLink(uriBuilder, 0L, slice.getSize(), "first"));
+        headers.add(HttpHeaders.LINK, link.toString());
+        return headers;
+    }
+
+    private static String prepareLink(UriComponentsBuilder uriBuilder, Long after, int size, String relType) {
+        String uri = uriBuilder.replaceQueryParam(AFTER_PARAMETER, after)
+            .replaceQueryParam(SIZE_PARAMETER, size)
+            .toUriString()
+            .replace(",", "%2C")
+            .replace(";", "%3B");
+        return MessageFormat.format(HEADER_LINK_FORMAT, uri, relType);
+    }
+}
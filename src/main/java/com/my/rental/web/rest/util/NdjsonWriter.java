@@ -0,0 +1,44 @@
+package com.my.rental.web.rest.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes objects as newline delimited JSON (one JSON document per line) with a Jackson streaming generator,
+ * so that an export never holds more than the object being written.
+ */
+public class NdjsonWriter implements Closeable {
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private final JsonGenerator generator;
+
+    public NdjsonWriter(ObjectMapper objectMapper, OutputStream outputStream) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(outputStream);
+    }
+
+    /**
+     * Write an object on its own line.
+     *
+     * @param value the object.
+     * @throws UncheckedIOException if the object cannot be written, e.g. when the client went away.
+     */
+    public void write(Object value) {
+        try {
+            generator.writeObject(value);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
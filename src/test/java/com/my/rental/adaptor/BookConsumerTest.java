@@ -0,0 +1,130 @@
+package com.my.rental.adaptor;
+
+import com.my.rental.config.KafkaProperties;
+import com.my.rental.domain.event.StockChangeResult;
+import com.my.rental.service.RentalService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.CommitFailedException;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Test class for the {@link BookConsumer}.
+ */
+public class BookConsumerTest {
+
+    private static final long POISON_BOOK_ID = 666L;
+
+    private RentalService rentalService;
+    private MeterRegistry meterRegistry;
+    private BookConsumer bookConsumer;
+    private List<Long> applied;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        rentalService = mock(RentalService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        bookConsumer = new BookConsumer(new KafkaProperties(), rentalService, meterRegistry);
+        applied = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<StockChangeResult> results = invocation.getArgument(0);
+            for (StockChangeResult result : results) {
+                if (result.getBookId() == POISON_BOOK_ID) {
+                    throw new IllegalStateException("poison record");
+                }
+            }
+            results.forEach(result -> applied.add(result.getBookId()));
+            return null;
+        }).when(rentalService).applyStockChangeResults(anyList());
+    }
+
+    @Test
+    public void batchIsAppliedInOneTransaction() throws Exception {
+        bookConsumer.apply(records(1L, 2L, 3L));
+
+        assertThat(applied).containsExactly(1L, 2L, 3L);
+        verify(rentalService, times(1)).applyStockChangeResults(anyList());
+        assertThat(meterRegistry.get("rental.consumer.skipped").counter().count()).isZero();
+    }
+
+    @Test
+    public void poisonRecordIsSkippedAfterRetries() throws Exception {
+        bookConsumer.apply(records(1L, POISON_BOOK_ID, 3L));
+
+        // 배치 재시도 후 한 건씩 처리하여 나머지 레코드는 반영된다
+        assertThat(applied).containsExactly(1L, 3L);
+        verify(rentalService, times(BookConsumer.MAX_BATCH_ATTEMPTS + 3)).applyStockChangeResults(anyList());
+        assertThat(meterRegistry.get("rental.consumer.skipped").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void consumerKeepsPollingAfterKafkaErrors() {
+        TopicPartition partition = new TopicPartition(BookConsumer.TOPIC_BOOK_RESULT, 0);
+        MockConsumer<String, String> consumer = new MockConsumer<String, String>(OffsetResetStrategy.EARLIEST) {
+            private boolean committed;
+
+            @Override
+            public synchronized void commitSync() {
+                // 리밸런스 뒤의 첫 커밋은 실패한다
+                if (!committed) {
+                    committed = true;
+                    throw new CommitFailedException();
+                }
+                super.commitSync();
+            }
+        };
+        consumer.schedulePollTask(() -> {
+            consumer.rebalance(Collections.singletonList(partition));
+            consumer.updateBeginningOffsets(Collections.singletonMap(partition, 0L));
+            consumer.addRecord(record(partition, 0, 1L));
+        });
+        consumer.schedulePollTask(() -> consumer.setPollException(new KafkaException("broker unavailable")));
+        consumer.schedulePollTask(() -> consumer.addRecord(record(partition, 1, 2L)));
+        consumer.schedulePollTask(() -> {
+            assertThat(consumer.committed(partition).offset()).isEqualTo(2L);
+            try {
+                bookConsumer.shutdown();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        bookConsumer.consume(consumer);
+
+        assertThat(applied).containsExactly(1L, 2L);
+        assertThat(meterRegistry.get("rental.consumer.errors").counter().count()).isEqualTo(2);
+        assertThat(consumer.closed()).isTrue();
+    }
+
+    private ConsumerRecord<String, String> record(TopicPartition partition, long offset, Long bookId) {
+        String value = "{\"bookId\":" + bookId + ",\"bookStatus\":\"UNAVAILABLE\",\"result\":\"SUCCESS\"}";
+        return new ConsumerRecord<>(partition.topic(), partition.partition(), offset, "book-" + bookId, value);
+    }
+
+    private ConsumerRecords<String, String> records(Long... bookIds) {
+        TopicPartition partition = new TopicPartition(BookConsumer.TOPIC_BOOK_RESULT, 0);
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        for (int i = 0; i < bookIds.length; i++) {
+            records.add(record(partition, i, bookIds[i]));
+        }
+        return new ConsumerRecords<>(Collections.singletonMap(partition, records));
+    }
+}
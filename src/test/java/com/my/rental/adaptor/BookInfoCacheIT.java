@@ -0,0 +1,149 @@
+package com.my.rental.adaptor;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.my.rental.RentalApp;
+import com.my.rental.config.ApplicationProperties;
+import com.my.rental.web.rest.dto.BookInfoDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Integration tests for the {@link BookInfoCache}.
+ */
+@SpringBootTest(classes = RentalApp.class)
+public class BookInfoCacheIT {
+
+    private static final Long BOOK_ID = 7000L;
+
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    private BookClient bookClient;
+    private MeterRegistry meterRegistry;
+    private BookInfoCache bookInfoCache;
+
+    @BeforeEach
+    public void setUp() {
+        bookClient = mock(BookClient.class);
+        meterRegistry = new SimpleMeterRegistry();
+        bookInfoCache = new BookInfoCache(bookClient, hazelcastInstance, Runnable::run, applicationProperties, meterRegistry);
+        bookInfoCache.evict(BOOK_ID);
+        when(bookClient.findBookInfo(anyLong())).thenAnswer(invocation -> {
+            BookInfoDTO bookInfo = new BookInfoDTO();
+            bookInfo.setId(invocation.getArgument(0));
+            bookInfo.setTitle("title-" + invocation.getArgument(0));
+            return ResponseEntity.ok(bookInfo);
+        });
+        when(bookClient.findBookInfos(anyList())).thenAnswer(invocation -> {
+            List<Long> bookIds = invocation.getArgument(0);
+            return ResponseEntity.ok(bookIds.stream().map(bookId -> {
+                BookInfoDTO bookInfo = new BookInfoDTO();
+                bookInfo.setId(bookId);
+                bookInfo.setTitle("title-" + bookId);
+                return bookInfo;
+            }).collect(Collectors.toList()));
+        });
+    }
+
+    @Test
+    public void secondLookupIsServedFromCache() {
+        assertThat(bookInfoCache.findBookInfo(BOOK_ID).getTitle()).isEqualTo("title-" + BOOK_ID);
+        assertThat(bookInfoCache.findBookInfo(BOOK_ID).getTitle()).isEqualTo("title-" + BOOK_ID);
+
+        verify(bookClient, times(1)).findBookInfo(BOOK_ID);
+        assertThat(cacheCount("miss")).isEqualTo(1);
+        assertThat(cacheCount("hit")).isEqualTo(1);
+        assertThat(bookClientCount("findBookInfo", "success")).isEqualTo(1);
+    }
+
+    @Test
+    public void evictedBookIsLoadedAgain() {
+        bookInfoCache.findBookInfo(BOOK_ID);
+        bookInfoCache.evict(BOOK_ID);
+        bookInfoCache.findBookInfo(BOOK_ID);
+
+        verify(bookClient, times(2)).findBookInfo(BOOK_ID);
+    }
+
+    @Test
+    public void missingBooksAreLoadedInOneCall() {
+        bookInfoCache.evict(BOOK_ID + 1);
+        bookInfoCache.evict(BOOK_ID + 2);
+        bookInfoCache.findBookInfo(BOOK_ID);
+
+        Map<Long, BookInfoDTO> bookInfos = bookInfoCache.findBookInfos(Arrays.asList(BOOK_ID, BOOK_ID + 1, BOOK_ID + 2));
+
+        assertThat(bookInfos).containsOnlyKeys(BOOK_ID, BOOK_ID + 1, BOOK_ID + 2);
+        verify(bookClient).findBookInfos(Arrays.asList(BOOK_ID + 1, BOOK_ID + 2));
+        assertThat(bookInfoCache.findBookInfos(Collections.singletonList(BOOK_ID + 2))).containsOnlyKeys(BOOK_ID + 2);
+        verify(bookClient, times(1)).findBookInfos(anyList());
+    }
+
+    @Test
+    public void staleBookIsServedWhileBookServiceFails() {
+        applicationProperties.getBookInfoCache().setRefreshAfterSeconds(0);
+        try {
+            BookInfoCache refreshingCache = new BookInfoCache(bookClient, hazelcastInstance, Runnable::run, applicationProperties, meterRegistry);
+            refreshingCache.findBookInfo(BOOK_ID);
+            when(bookClient.findBookInfo(BOOK_ID)).thenThrow(new IllegalStateException("book service is down"));
+
+            assertThat(refreshingCache.findBookInfo(BOOK_ID).getTitle()).isEqualTo("title-" + BOOK_ID);
+            assertThat(cacheCount("stale")).isEqualTo(1);
+            assertThat(bookClientCount("findBookInfo", "success")).isEqualTo(1);
+            assertThat(bookClientCount("findBookInfo", "failure")).isEqualTo(1);
+        } finally {
+            applicationProperties.getBookInfoCache().setRefreshAfterSeconds(600);
+        }
+    }
+
+    @Test
+    public void emptyResponseIsRejectedAndNotCached() {
+        when(bookClient.findBookInfo(BOOK_ID)).thenReturn(ResponseEntity.ok().build());
+
+        assertThatThrownBy(() -> bookInfoCache.findBookInfo(BOOK_ID)).isInstanceOf(InvalidBookInfoException.class);
+        assertThat(hazelcastInstance.getMap(BookInfoCache.MAP_NAME).containsKey(BOOK_ID)).isFalse();
+    }
+
+    @Test
+    public void bookInfoWithoutIdIsRejectedAndNotCached() {
+        bookInfoCache.evict(BOOK_ID + 1);
+        BookInfoDTO withoutId = new BookInfoDTO();
+        withoutId.setTitle("title");
+        when(bookClient.findBookInfo(BOOK_ID)).thenReturn(ResponseEntity.ok(withoutId));
+        when(bookClient.findBookInfos(anyList())).thenReturn(ResponseEntity.ok(Collections.singletonList(withoutId)));
+
+        assertThatThrownBy(() -> bookInfoCache.findBookInfo(BOOK_ID)).isInstanceOf(InvalidBookInfoException.class);
+        assertThatThrownBy(() -> bookInfoCache.findBookInfos(Collections.singletonList(BOOK_ID + 1)))
+            .isInstanceOf(InvalidBookInfoException.class);
+        assertThat(hazelcastInstance.getMap(BookInfoCache.MAP_NAME).containsKey(BOOK_ID)).isFalse();
+        assertThat(hazelcastInstance.getMap(BookInfoCache.MAP_NAME).containsKey(BOOK_ID + 1)).isFalse();
+    }
+
+    private double cacheCount(String result) {
+        return meterRegistry.get("rental.book.info.cache").tag("result", result).counter().count();
+    }
+
+    private long bookClientCount(String method, String outcome) {
+        return meterRegistry.get("rental.book.client").tag("method", method).tag("outcome", outcome).timer().count();
+    }
+}
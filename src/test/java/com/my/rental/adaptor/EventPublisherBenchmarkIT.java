@@ -0,0 +1,105 @@
+package com.my.rental.adaptor;
+
+import com.my.rental.config.KafkaProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.KafkaContainer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares sequential-blocking publishing, as {@code RentalProducerImpl} used to do it, with the pipelined
+ * {@link EventPublisher} used by the outbox relay. Run with {@code ./gradlew benchmarkTest}.
+ */
+class EventPublisherBenchmarkIT {
+
+    private static final int RENTS = 1000;
+    private static final String[] TOPICS = {"bench_book", "bench_catalog", "bench_point"};
+
+    private final Logger log = LoggerFactory.getLogger(EventPublisherBenchmarkIT.class);
+
+    private static KafkaContainer kafkaContainer;
+
+    @BeforeAll
+    static void startServer() {
+        kafkaContainer = new KafkaContainer("5.5.0").withNetwork(null);
+        kafkaContainer.start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        kafkaContainer.stop();
+    }
+
+    @Test
+    void pipelinedPublishIsFasterThanSequentialBlockingPublish() throws Exception {
+        long sequentialNanos = sequentialBlocking(getKafkaProperties());
+        long pipelinedNanos = pipelined(getKafkaProperties());
+
+        log.info("Published {} rents ({} events): sequential-blocking {} ms ({} us/rent), pipelined {} ms ({} us/rent)",
+            RENTS, RENTS * TOPICS.length,
+            TimeUnit.NANOSECONDS.toMillis(sequentialNanos), TimeUnit.NANOSECONDS.toMicros(sequentialNanos) / RENTS,
+            TimeUnit.NANOSECONDS.toMillis(pipelinedNanos), TimeUnit.NANOSECONDS.toMicros(pipelinedNanos) / RENTS);
+        assertThat(pipelinedNanos).isLessThan(sequentialNanos);
+    }
+
+    private long sequentialBlocking(KafkaProperties kafkaProperties) throws Exception {
+        try (KafkaProducer<String, String> producer = new KafkaProducer<>(kafkaProperties.getProducerProps())) {
+            producer.send(new ProducerRecord<String, String>(TOPICS[0], "warmup")).get();
+            long start = System.nanoTime();
+            for (int i = 0; i < RENTS; i++) {
+                for (String topic : TOPICS) {
+                    producer.send(new ProducerRecord<String, String>(topic, "book-" + i, message(i))).get();
+                }
+            }
+            return System.nanoTime() - start;
+        }
+    }
+
+    private long pipelined(KafkaProperties kafkaProperties) throws Exception {
+        EventPublisherImpl eventPublisher = new EventPublisherImpl(kafkaProperties, new SimpleMeterRegistry());
+        eventPublisher.initialize();
+        try {
+            eventPublisher.publish(TOPICS[0], null, "warmup").get();
+            long start = System.nanoTime();
+            List<CompletableFuture<RecordMetadata>> acks = new ArrayList<>(RENTS * TOPICS.length);
+            for (int i = 0; i < RENTS; i++) {
+                for (String topic : TOPICS) {
+                    acks.add(eventPublisher.publish(topic, "book-" + i, message(i)));
+                }
+            }
+            CompletableFuture.allOf(acks.toArray(new CompletableFuture<?>[0])).get();
+            return System.nanoTime() - start;
+        } finally {
+            eventPublisher.shutdown();
+        }
+    }
+
+    private String message(int i) {
+        return "{\"bookId\":" + i + ",\"bookStatus\":\"UNAVAILABLE\"}";
+    }
+
+    private KafkaProperties getKafkaProperties() {
+        Map<String, String> producerProps = new HashMap<>();
+        producerProps.put("key.serializer", "org.apache.kafka.common.serialization.StringSerializer");
+        producerProps.put("value.serializer", "org.apache.kafka.common.serialization.StringSerializer");
+        producerProps.put("bootstrap.servers", kafkaContainer.getBootstrapServers());
+        KafkaProperties kafkaProperties = new KafkaProperties();
+        kafkaProperties.setProducer(producerProps);
+        return kafkaProperties;
+    }
+}
@@ -0,0 +1,145 @@
+package com.my.rental.adaptor;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.my.rental.config.ApplicationProperties;
+import com.my.rental.domain.OutboxEvent;
+import com.my.rental.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the {@link OutboxRelay}.
+ */
+public class OutboxRelayTest {
+
+    private OutboxEventRepository outboxEventRepository;
+    private EventPublisher eventPublisher;
+    private IMap<String, Boolean> relayLock;
+    private ApplicationProperties applicationProperties;
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        outboxEventRepository = mock(OutboxEventRepository.class);
+        eventPublisher = mock(EventPublisher.class);
+        relayLock = mock(IMap.class);
+        HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+        when(hazelcastInstance.<String, Boolean>getMap(OutboxRelay.LOCK_MAP_NAME)).thenReturn(relayLock);
+        when(outboxEventRepository.findFirstByOrderByIdAsc()).thenReturn(Optional.empty());
+        applicationProperties = new ApplicationProperties();
+        outboxRelay = new OutboxRelay(outboxEventRepository, eventPublisher, applicationProperties,
+            new SimpleMeterRegistry(), hazelcastInstance);
+        outboxRelay.initialize();
+    }
+
+    @Test
+    public void relayPublishesAndDeletesTheBatch() throws Exception {
+        givenLock(true);
+        when(outboxEventRepository.findPending(any())).thenReturn(Arrays.asList(
+            event(1L, "topic_book", "book", 10L), event(2L, "topic_book", "book", 11L)));
+        when(eventPublisher.publish(anyString(), anyString(), anyString())).thenReturn(ack());
+
+        outboxRelay.relay();
+
+        verify(outboxEventRepository).deleteByIdIn(Arrays.asList(1L, 2L));
+        verify(relayLock).unlock(OutboxRelay.LOCK_KEY);
+    }
+
+    @Test
+    public void aggregateIsNotSentAfterAFailedEvent() throws Exception {
+        givenLock(true);
+        OutboxEvent failed = event(1L, "topic_book", "book", 10L);
+        OutboxEvent following = event(2L, "topic_catalog", "book", 10L);
+        OutboxEvent other = event(3L, "topic_book", "book", 11L);
+        when(outboxEventRepository.findPending(any())).thenReturn(Arrays.asList(failed, following, other));
+        CompletableFuture<RecordMetadata> failure = new CompletableFuture<>();
+        failure.completeExceptionally(new TimeoutException("broker down"));
+        when(eventPublisher.publish("topic_book", "book-10", failed.getPayload())).thenReturn(failure);
+        when(eventPublisher.publish("topic_book", "book-11", other.getPayload())).thenReturn(ack());
+
+        outboxRelay.relay();
+
+        // 같은 애그리거트의 다음 이벤트는 보내지 않고, 응답을 받은 이벤트만 지운다
+        verify(eventPublisher, never()).publish("topic_catalog", "book-10", following.getPayload());
+        verify(outboxEventRepository).deleteByIdIn(Collections.singletonList(3L));
+    }
+
+    @Test
+    public void runEndsAtHalfTheLockLease() throws Exception {
+        givenLock(true);
+        applicationProperties.getOutbox().setLockLeaseSeconds(1);
+        OutboxEvent unacknowledged = event(1L, "topic_book", "book", 10L);
+        OutboxEvent following = event(2L, "topic_book", "book", 10L);
+        OutboxEvent other = event(3L, "topic_book", "book", 11L);
+        when(outboxEventRepository.findPending(any())).thenReturn(Arrays.asList(unacknowledged, following, other));
+        when(eventPublisher.publish("topic_book", "book-10", unacknowledged.getPayload())).thenReturn(new CompletableFuture<>());
+        when(eventPublisher.publish("topic_book", "book-11", other.getPayload())).thenReturn(ack());
+
+        long start = System.nanoTime();
+        outboxRelay.relay();
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1000);
+        verify(eventPublisher, never()).publish("topic_book", "book-10", following.getPayload());
+        verify(outboxEventRepository).deleteByIdIn(Collections.singletonList(3L));
+        verify(relayLock).unlock(OutboxRelay.LOCK_KEY);
+    }
+
+    @Test
+    public void emptyOutboxIsNotCounted() throws Exception {
+        givenLock(true);
+        when(outboxEventRepository.findPending(any())).thenReturn(Collections.emptyList());
+
+        outboxRelay.relay();
+
+        verify(outboxEventRepository, never()).count();
+        verify(outboxEventRepository, never()).findFirstByOrderByIdAsc();
+    }
+
+    @Test
+    public void relayIsSkippedWhileAnotherNodeHoldsTheLock() throws Exception {
+        givenLock(false);
+
+        outboxRelay.relay();
+
+        verify(outboxEventRepository, never()).findPending(any());
+        verify(eventPublisher, never()).publish(anyString(), anyString(), anyString());
+        verify(relayLock, never()).unlock(anyString());
+    }
+
+    private void givenLock(boolean acquired) throws InterruptedException {
+        when(relayLock.tryLock(eq(OutboxRelay.LOCK_KEY), eq(0L), eq(TimeUnit.SECONDS), anyLong(), eq(TimeUnit.SECONDS)))
+            .thenReturn(acquired);
+    }
+
+    static OutboxEvent event(Long id, String topic, String aggregateType, Long aggregateId) {
+        OutboxEvent event = OutboxEvent.createOutboxEvent(aggregateType, aggregateId, topic, "{\"event\":" + id + "}");
+        event.setId(id);
+        return event;
+    }
+
+    static CompletableFuture<RecordMetadata> ack() {
+        return CompletableFuture.completedFuture(new RecordMetadata(new TopicPartition("topic", 0), 0, 0, 0, 0L, 0, 0));
+    }
+}
@@ -0,0 +1,142 @@
+package com.my.rental.aop.logging;
+
+import com.my.rental.config.ApplicationProperties;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for the {@link LoggingAspect}.
+ */
+public class LoggingAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private LoggingAspect loggingAspect;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getLoggingAspect().setSampleRate(100);
+        loggingAspect = new LoggingAspect(new MockEnvironment(), applicationProperties, meterRegistry);
+    }
+
+    @Test
+    public void testCallsAreTimedPerMethod() throws Throwable {
+        for (int i = 0; i < 3; i++) {
+            assertThat(loggingAspect.logAround(joinPoint("length", "value"))).isEqualTo(5);
+        }
+
+        Timer timer = meterRegistry.get(LoggingAspect.TIMER_NAME)
+            .tags("class", "String", "method", "length", "exception", "none").timer();
+        assertThat(timer.count()).isEqualTo(3);
+    }
+
+    @Test
+    public void testFailuresAreTimedPerException() throws Throwable {
+        ProceedingJoinPoint joinPoint = joinPoint("length", "value");
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("failure"));
+
+        assertThatThrownBy(() -> loggingAspect.logAround(joinPoint)).isInstanceOf(IllegalStateException.class);
+
+        Timer timer = meterRegistry.get(LoggingAspect.TIMER_NAME)
+            .tags("method", "length", "exception", "IllegalStateException").timer();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testExceptionsAreNotSampled() throws Throwable {
+        Logger logger = (Logger) LoggerFactory.getLogger(String.class);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+        try {
+            for (int i = 0; i < 3; i++) {
+                loggingAspect.logAfterThrowing(joinPoint("length", "value"), new IllegalStateException("failure"));
+            }
+        } finally {
+            logger.detachAppender(appender);
+        }
+
+        assertThat(appender.list).hasSize(3).allMatch(event -> event.getLevel() == Level.ERROR);
+    }
+
+    @Test
+    public void testTimerHasNoPercentilesNorHistogram() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        // management.metrics.distribution.*.all 속성을 흉내 낸다
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder()
+                    .percentilesHistogram(true)
+                    .percentiles(0.5, 0.99)
+                    .build()
+                    .merge(config);
+            }
+        });
+        registry.config().meterFilter(LoggingAspect.timerDistributionFilter());
+
+        Timer methodTimer = Timer.builder(LoggingAspect.TIMER_NAME).register(registry);
+        Timer otherTimer = Timer.builder("rental.command").register(registry);
+        methodTimer.record(1, TimeUnit.MILLISECONDS);
+        otherTimer.record(1, TimeUnit.MILLISECONDS);
+
+        assertThat(methodTimer.takeSnapshot().percentileValues()).isEmpty();
+        assertThat(methodTimer.takeSnapshot().histogramCounts()).isEmpty();
+        assertThat(otherTimer.takeSnapshot().percentileValues()).hasSize(2);
+    }
+
+    @Test
+    public void testAbbreviateCutsLongValues() {
+        String text = String.join("", Collections.nCopies(100, "x"));
+        assertThat(LoggingAspect.abbreviate(text, 10)).isEqualTo("xxxxxxxxxx...");
+        assertThat(LoggingAspect.abbreviate("short", 10)).isEqualTo("short");
+        assertThat(LoggingAspect.abbreviate(null, 10)).isEqualTo("null");
+    }
+
+    @Test
+    public void testAbbreviateStopsIteratingCollections() {
+        List<Integer> values = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+        assertThat(LoggingAspect.abbreviate(values, 10)).isEqualTo("[0, 1, 2, ...997 more]");
+        assertThat(LoggingAspect.abbreviate(new Object[]{1L, Arrays.asList("a", "b")}, 100)).isEqualTo("[1, [a, b]]");
+        assertThat(LoggingAspect.abbreviate(Collections.singletonMap("key", "value"), 100)).isEqualTo("{key=value}");
+    }
+
+    private static ProceedingJoinPoint joinPoint(String methodName, String target) throws Throwable {
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(String.class.getMethod(methodName));
+        when(signature.getName()).thenReturn(methodName);
+        when(signature.getDeclaringTypeName()).thenReturn(String.class.getName());
+        when(signature.getDeclaringType()).thenReturn(String.class);
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getArgs()).thenReturn(new Object[0]);
+        when(joinPoint.proceed()).thenAnswer(invocation -> target.length());
+        return joinPoint;
+    }
+}
@@ -0,0 +1,69 @@
+package com.my.rental.config;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MaxSizeConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.my.rental.RentalApp;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the Hazelcast map configuration of {@link CacheConfiguration}.
+ */
+@SpringBootTest(classes = RentalApp.class)
+public class CacheConfigurationIT {
+
+    private static final String RENTAL_REGION = "com.my.rental.domain.Rental";
+    private static final String RETURNED_ITEM_REGION = "com.my.rental.domain.ReturnedItem";
+
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void regionsAreBoundedWithTheirOwnConfig() {
+        Config config = hazelcastInstance.getConfig();
+
+        MapConfig rental = config.findMapConfig(RENTAL_REGION);
+        assertThat(rental.getMaxSizeConfig().getSize()).isEqualTo(100);
+        assertThat(rental.getMaxSizeConfig().getMaxSizePolicy()).isEqualTo(MaxSizeConfig.MaxSizePolicy.PER_NODE);
+        assertThat(rental.getNearCacheConfig()).isNotNull();
+        assertThat(rental.getNearCacheConfig().getInMemoryFormat()).isEqualTo(InMemoryFormat.OBJECT);
+        assertThat(rental.getNearCacheConfig().isCacheLocalEntries()).isTrue();
+        assertThat(rental.getNearCacheConfig().isInvalidateOnChange()).isTrue();
+
+        MapConfig returnedItem = config.findMapConfig(RETURNED_ITEM_REGION);
+        assertThat(returnedItem.getMaxSizeConfig().getSize()).isEqualTo(10);
+        assertThat(returnedItem.getTimeToLiveSeconds()).isEqualTo(60);
+        assertThat(returnedItem.getNearCacheConfig()).isNull();
+
+        // 개별 설정이 없는 도메인 맵과 기본 맵도 크기 제한을 갖는다
+        assertThat(config.findMapConfig("com.my.rental.domain.OverdueItem").getMaxSizeConfig().getSize()).isEqualTo(1000);
+        assertThat(config.findMapConfig("someCache").getMaxSizeConfig().getSize()).isEqualTo(1000);
+    }
+
+    @Test
+    public void nearCacheServesLocalHits() {
+        hazelcastInstance.getMap(RENTAL_REGION).put("near-cache-test", "value");
+        for (int i = 0; i < 3; i++) {
+            assertThat(hazelcastInstance.getMap(RENTAL_REGION).get("near-cache-test")).isEqualTo("value");
+        }
+        assertThat(hazelcastInstance.getMap(RENTAL_REGION).getLocalMapStats().getNearCacheStats().getHits()).isPositive();
+        hazelcastInstance.getMap(RENTAL_REGION).delete("near-cache-test");
+    }
+
+    @Test
+    public void regionStatisticsAreExposedAsMeters() {
+        assertThat(meterRegistry.find("cache.puts").tag("cache", RENTAL_REGION).meter()).isNotNull();
+        assertThat(meterRegistry.find("cache.puts").tag("cache", RETURNED_ITEM_REGION).meter()).isNotNull();
+        assertThat(meterRegistry.find("cache.near.requests").tag("cache", RENTAL_REGION).meter()).isNotNull();
+    }
+}
@@ -0,0 +1,84 @@
+package com.my.rental.config;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import com.my.rental.adaptor.BookInfoCache;
+import com.my.rental.web.rest.dto.BookInfoDTO;
+import org.hibernate.cache.spi.entry.CollectionCacheEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests the binary serialization configured by {@link CacheConfiguration#initializeSerializationConfig()}.
+ */
+public class HazelcastSerializationTest {
+
+    private InternalSerializationService javaSerialization;
+    private InternalSerializationService binarySerialization;
+
+    @BeforeEach
+    public void setUp() {
+        javaSerialization = new DefaultSerializationServiceBuilder().build();
+        binarySerialization = new DefaultSerializationServiceBuilder()
+            .setConfig(CacheConfiguration.initializeSerializationConfig()).build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        javaSerialization.dispose();
+        binarySerialization.dispose();
+    }
+
+    @Test
+    public void cachedBookInfoRoundTrip() {
+        BookInfoDTO bookInfo = new BookInfoDTO();
+        bookInfo.setId(1234L);
+        bookInfo.setTitle("title-1234");
+        BookInfoCache.CachedBookInfo cached = new BookInfoCache.CachedBookInfo(bookInfo, 42L);
+
+        Data data = binarySerialization.toData(cached);
+        BookInfoCache.CachedBookInfo read = binarySerialization.toObject(data);
+
+        assertThat(data.getType()).isEqualTo(javaSerialization.toData(cached).getType());
+        assertThat(read).usingRecursiveComparison().isEqualTo(cached);
+    }
+
+    @Test
+    public void cachedBookInfoWithoutIdOrTitleIsWritten() {
+        BookInfoDTO bookInfo = new BookInfoDTO();
+        BookInfoCache.CachedBookInfo cached = new BookInfoCache.CachedBookInfo(bookInfo, 42L);
+
+        BookInfoCache.CachedBookInfo read = binarySerialization.toObject(binarySerialization.toData(cached));
+
+        assertThat(read).usingRecursiveComparison().isEqualTo(cached);
+    }
+
+    @Test
+    public void collectionCacheEntryOfIdsIsWrittenAsLongs() {
+        Serializable[] state = {1L, 101L, 2L, 102L, 3L, 103L};
+        CollectionCacheEntry entry = CollectionCacheEntrySerializer.create(state);
+
+        Data data = binarySerialization.toData(entry);
+        CollectionCacheEntry read = binarySerialization.toObject(data);
+
+        assertThat(data.getType()).isEqualTo(CollectionCacheEntrySerializer.TYPE_ID);
+        assertThat(read.getState()).containsExactly(state);
+        assertThat(data.totalSize()).isLessThan(javaSerialization.toData(entry).totalSize());
+    }
+
+    @Test
+    public void collectionCacheEntryOfOtherValuesRoundTrip() {
+        Serializable[] state = {"a", 1L, null};
+        CollectionCacheEntry entry = CollectionCacheEntrySerializer.create(state);
+
+        CollectionCacheEntry read = binarySerialization.toObject(binarySerialization.toData(entry));
+
+        assertThat(read.getState()).containsExactly(state);
+    }
+}
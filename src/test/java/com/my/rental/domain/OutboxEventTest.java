@@ -0,0 +1,31 @@
+package com.my.rental.domain;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import com.my.rental.web.rest.TestUtil;
+
+public class OutboxEventTest {
+
+    @Test
+    public void equalsVerifier() throws Exception {
+        TestUtil.equalsVerifier(OutboxEvent.class);
+        OutboxEvent outboxEvent1 = new OutboxEvent();
+        outboxEvent1.setId(1L);
+        OutboxEvent outboxEvent2 = new OutboxEvent();
+        outboxEvent2.setId(outboxEvent1.getId());
+        assertThat(outboxEvent1).isEqualTo(outboxEvent2);
+        outboxEvent2.setId(2L);
+        assertThat(outboxEvent1).isNotEqualTo(outboxEvent2);
+        outboxEvent1.setId(null);
+        assertThat(outboxEvent1).isNotEqualTo(outboxEvent2);
+    }
+
+    @Test
+    public void aggregateKeyGroupsEventsOfTheSameAggregate() {
+        OutboxEvent stockChanged = OutboxEvent.createOutboxEvent("book", 10L, "topic_book", "{}");
+        OutboxEvent catalogChanged = OutboxEvent.createOutboxEvent("book", 10L, "topic_catalog", "{}");
+        OutboxEvent pointChanged = OutboxEvent.createOutboxEvent("user", 10L, "topic_point", "{}");
+        assertThat(stockChanged.getAggregateKey()).isEqualTo(catalogChanged.getAggregateKey());
+        assertThat(stockChanged.getAggregateKey()).isNotEqualTo(pointChanged.getAggregateKey());
+    }
+}
@@ -1,7 +1,14 @@
 package com.my.rental.domain;
 
+import com.my.rental.domain.exception.BookAlreadyRentedException;
+import com.my.rental.domain.exception.RentalItemNotFoundException;
 import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import com.my.rental.web.rest.TestUtil;
 
 public class RentalTest {
@@ -19,4 +26,62 @@ public class RentalTest {
         rental1.setId(null);
         assertThat(rental1).isNotEqualTo(rental2);
     }
+
+    @Test
+    public void itemsAreLookedUpByBookId() {
+        Rental rental = Rental.createRental(1L).rentBook(10L, "title-10").rentBook(20L, "title-20");
+
+        rental.overdueBook(10L);
+        assertThat(rental.getRentedItems()).containsOnlyKeys(20L);
+        assertThat(rental.getOverdueItems()).containsOnlyKeys(10L);
+
+        ReturnedItem returnedItem = rental.returnOverdueBook(10L);
+        rental.returnBooks(20L);
+        assertThat(rental.getRentedItems()).isEmpty();
+        assertThat(rental.getOverdueItems()).isEmpty();
+        assertThat(returnedItem.getBookId()).isEqualTo(10L);
+        assertThat(returnedItem.getRental()).isSameAs(rental);
+    }
+
+    @Test
+    public void missingItemThrowsRentalItemNotFoundException() {
+        Rental rental = Rental.createRental(1L).rentBook(10L, "title-10");
+
+        assertThatThrownBy(() -> rental.returnBooks(20L))
+            .isInstanceOf(RentalItemNotFoundException.class)
+            .hasMessage("Rented item not found for book 20");
+        assertThatThrownBy(() -> rental.returnOverdueBook(10L))
+            .isInstanceOf(RentalItemNotFoundException.class)
+            .hasMessage("Overdue item not found for book 10");
+    }
+
+    @Test
+    public void rentingARentedBookThrowsBookAlreadyRentedException() {
+        Rental rental = Rental.createRental(1L).rentBook(10L, "title-10");
+        Map<Long, String> bookTitles = new LinkedHashMap<>();
+        bookTitles.put(20L, "title-20");
+        bookTitles.put(10L, "title-10");
+
+        assertThatThrownBy(() -> rental.rentBook(10L, "title-10"))
+            .isInstanceOf(BookAlreadyRentedException.class)
+            .hasMessage("Book 10 is already rented");
+        assertThatThrownBy(() -> rental.rentBooks(bookTitles))
+            .isInstanceOf(BookAlreadyRentedException.class);
+        assertThat(rental.getRentedItems()).containsOnlyKeys(10L);
+    }
+
+    @Test
+    public void rentBooksChecksTheLimitOnce() throws Exception {
+        Rental rental = Rental.createRental(1L).rentBook(10L, "title-10").rentBook(20L, "title-20");
+        Map<Long, String> bookTitles = new LinkedHashMap<>();
+        bookTitles.put(30L, "title-30");
+        bookTitles.put(40L, "title-40");
+        bookTitles.put(50L, "title-50");
+
+        assertThat(rental.checkRentalAvailable(bookTitles.size())).isTrue();
+        rental.rentBooks(bookTitles);
+        assertThat(rental.getRentedItems()).containsOnlyKeys(10L, 20L, 30L, 40L, 50L);
+        assertThat(rental.getRentedItems().get(40L).getBookTitle()).isEqualTo("title-40");
+        assertThatThrownBy(() -> rental.checkRentalAvailable(1)).isInstanceOf(Exception.class);
+    }
 }
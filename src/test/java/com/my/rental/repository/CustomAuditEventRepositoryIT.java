@@ -0,0 +1,111 @@
+package com.my.rental.repository;
+
+import com.my.rental.RentalApp;
+import com.my.rental.config.ApplicationProperties;
+import com.my.rental.config.audit.AuditEventConverter;
+import com.my.rental.domain.PersistentAuditEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.audit.AuditEvent;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link CustomAuditEventRepository}.
+ */
+@SpringBootTest(classes = RentalApp.class)
+public class CustomAuditEventRepositoryIT {
+
+    private static final String PRINCIPAL = "audit-test-user";
+
+    @Autowired
+    private CustomAuditEventRepository customAuditEventRepository;
+
+    @Autowired
+    private PersistenceAuditEventRepository persistenceAuditEventRepository;
+
+    @Autowired
+    private AuditEventConverter auditEventConverter;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    public void cleanUp() {
+        transactionTemplate.execute(status -> {
+            persistenceAuditEventRepository.deleteAll(persistenceAuditEventRepository.findByPrincipal(PRINCIPAL));
+            return null;
+        });
+    }
+
+    @Test
+    public void addedEventsAreWrittenInTheBackground() throws InterruptedException {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        Map<String, Object> data = new HashMap<>();
+        data.put("test-key", "test-value");
+        data.put("long-key", String.join("", Collections.nCopies(300, "x")));
+        customAuditEventRepository.add(new AuditEvent(now, PRINCIPAL, "test-type", data));
+        customAuditEventRepository.add(new AuditEvent(now, PRINCIPAL, "test-type", Collections.emptyMap()));
+        customAuditEventRepository.add(new AuditEvent(now, PRINCIPAL, "AUTHORIZATION_FAILURE", Collections.emptyMap()));
+        customAuditEventRepository.add(new AuditEvent(now, "anonymousUser", "test-type", Collections.emptyMap()));
+
+        List<PersistentAuditEvent> events = awaitEvents(2);
+
+        assertThat(events).extracting(PersistentAuditEvent::getAuditEventType).containsOnly("test-type");
+        assertThat(events).extracting(PersistentAuditEvent::getAuditEventDate).containsOnly(now);
+        List<AuditEvent> found = customAuditEventRepository.find(PRINCIPAL, now.minusSeconds(1), "test-type");
+        assertThat(found).hasSize(2);
+        assertThat(found).flatExtracting(event -> event.getData().keySet()).containsOnly("test-key", "long-key");
+        Map<String, Object> foundData = found.stream().filter(event -> !event.getData().isEmpty()).findFirst().get().getData();
+        assertThat(foundData.get("test-key")).isEqualTo("test-value");
+        assertThat((String) foundData.get("long-key")).hasSize(255);
+    }
+
+    @Test
+    public void eventsAreDroppedWhenTheQueueIsFull() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getAudit().setQueueCapacity(1);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // 쓰기 스레드를 시작하지 않아 큐가 비워지지 않는다
+        CustomAuditEventRepository saturated = new CustomAuditEventRepository(persistenceAuditEventRepository,
+            auditEventConverter, dataSource, transactionManager, applicationProperties, meterRegistry);
+
+        for (int i = 0; i < 3; i++) {
+            saturated.add(new AuditEvent(PRINCIPAL, "test-type"));
+        }
+
+        assertThat(meterRegistry.get("rental.audit.events").tag("result", "dropped").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("rental.audit.queue").gauge().value()).isEqualTo(1);
+    }
+
+    private List<PersistentAuditEvent> awaitEvents(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        List<PersistentAuditEvent> events = persistenceAuditEventRepository.findByPrincipal(PRINCIPAL);
+        while (events.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            events = persistenceAuditEventRepository.findByPrincipal(PRINCIPAL);
+        }
+        assertThat(events).hasSize(count);
+        return events;
+    }
+}
@@ -0,0 +1,103 @@
+package com.my.rental.repository;
+
+import com.my.rental.RentalApp;
+import com.my.rental.domain.Rental;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pages through a million seeded rentals with keyset pagination, and compares the latency of a few pages read
+ * with offset pagination plus its count query against the same pages read after a key.
+ * Run with {@code ./gradlew benchmarkTest}.
+ */
+@SpringBootTest(classes = RentalApp.class)
+class KeysetPaginationBenchmarkIT {
+
+    private static final int RENTAL_COUNT = 1_000_000;
+    private static final int PAGE_SIZE = 1000;
+    private static final long FIRST_ID = 20_000_000L;
+    private static final int[] SAMPLED_PAGES = {0, 250, 500, 750, RENTAL_COUNT / PAGE_SIZE - 1};
+
+    private final Logger log = LoggerFactory.getLogger(KeysetPaginationBenchmarkIT.class);
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void seed() {
+        transactionTemplate.execute(status -> {
+            List<Object[]> rentals = new ArrayList<>(10_000);
+            for (long id = FIRST_ID; id < FIRST_ID + RENTAL_COUNT; id++) {
+                rentals.add(new Object[]{id, id, "OK", 0L});
+                if (rentals.size() == 10_000) {
+                    jdbcTemplate.batchUpdate("insert into rental (id, user_id, rental_status, late_fee) values (?, ?, ?, ?)", rentals);
+                    rentals.clear();
+                }
+            }
+            return null;
+        });
+    }
+
+    @AfterEach
+    void cleanUp() {
+        transactionTemplate.execute(status -> jdbcTemplate.update("delete from rental where id >= ?", FIRST_ID));
+    }
+
+    @Test
+    void keysetPagesDoNotSlowDownWithDepth() {
+        long start = System.nanoTime();
+        long after = FIRST_ID - 1;
+        int rows = 0;
+        Slice<Rental> slice;
+        do {
+            slice = rentalRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, PAGE_SIZE));
+            rows += slice.getNumberOfElements();
+            after = slice.getContent().get(slice.getNumberOfElements() - 1).getId();
+        } while (slice.hasNext());
+        log.info("Keyset: read {} rentals in {} pages of {} in {} ms", rows, RENTAL_COUNT / PAGE_SIZE, PAGE_SIZE,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        assertThat(rows).isGreaterThanOrEqualTo(RENTAL_COUNT);
+
+        long offsetDeepest = 0;
+        long keysetDeepest = 0;
+        for (int page : SAMPLED_PAGES) {
+            start = System.nanoTime();
+            Page<Rental> offsetPage = rentalRepository.findAll(PageRequest.of(page, PAGE_SIZE, Sort.by("id")));
+            long offsetMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+
+            Long pageAfter = offsetPage.getContent().get(0).getId() - 1;
+            start = System.nanoTime();
+            Slice<Rental> keysetSlice = rentalRepository.findByIdGreaterThanOrderByIdAsc(pageAfter, PageRequest.of(0, PAGE_SIZE));
+            long keysetMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+
+            assertThat(keysetSlice.getContent()).isEqualTo(offsetPage.getContent());
+            log.info("Page {}: offset + count {} us, keyset {} us", page, offsetMicros, keysetMicros);
+            offsetDeepest = offsetMicros;
+            keysetDeepest = keysetMicros;
+        }
+        assertThat(keysetDeepest).isLessThan(offsetDeepest);
+    }
+}
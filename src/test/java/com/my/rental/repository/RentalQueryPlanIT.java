@@ -0,0 +1,111 @@
+package com.my.rental.repository;
+
+import com.my.rental.RentalApp;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests checking that the rental hot-path lookups use the indexes
+ * of the {@code 20230310120000_added_rental_item_tables_and_indexes} changelog.
+ * <p>
+ * Runs against a MariaDB container, so the plans are the ones of the production database.
+ */
+@SpringBootTest(classes = RentalApp.class)
+@ActiveProfiles("testcontainers")
+@Transactional
+public class RentalQueryPlanIT {
+
+    private static final int RENTAL_COUNT = 500;
+    private static final long FIRST_ID = 100_000L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void initData() {
+        List<Object[]> rentals = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 0; i < RENTAL_COUNT; i++) {
+            long rentalId = FIRST_ID + i;
+            rentals.add(new Object[]{rentalId, rentalId, "RENT_AVAILABLE", 0L});
+            for (int k = 0; k < 3; k++) {
+                items.add(new Object[]{rentalId * 10 + k, rentalId * 10 + k, "title", rentalId});
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into rental (id, user_id, rental_status, late_fee) values (?, ?, ?, ?)", rentals);
+        jdbcTemplate.batchUpdate("insert into rented_item (id, book_id, rented_date, due_date, book_title, rental_id) " +
+            "values (?, ?, current_date, current_date, ?, ?)", items);
+        jdbcTemplate.batchUpdate("insert into overdue_item (id, book_id, due_date, book_title, rental_id) " +
+            "values (?, ?, current_date, ?, ?)", items);
+        jdbcTemplate.batchUpdate("insert into returned_item (id, book_id, returned_date, book_title, rental_id) " +
+            "values (?, ?, current_date, ?, ?)", items);
+    }
+
+    @Test
+    public void findRentalByUserIdUsesUniqueIndex() {
+        assertThat(indexUsedBy("select * from rental where user_id = ?", FIRST_ID + 7))
+            .isEqualTo("ux_rental_user_id");
+    }
+
+    @Test
+    public void loadItemsOfRentalUsesCompositeIndex() {
+        long rentalId = FIRST_ID + 7;
+        assertThat(indexUsedBy("select * from rented_item where rental_id = ?", rentalId))
+            .isEqualTo("idx_rented_item_rental_book");
+        assertThat(indexUsedBy("select * from overdue_item where rental_id = ?", rentalId))
+            .isEqualTo("idx_overdue_item_rental_book");
+        assertThat(indexUsedBy("select * from returned_item where rental_id = ?", rentalId))
+            .isEqualTo("idx_returned_item_rental_book");
+    }
+
+    @Test
+    public void findItemOfRentalByBookIdUsesCompositeIndex() {
+        long rentalId = FIRST_ID + 7;
+        long bookId = rentalId * 10 + 1;
+        assertThat(indexUsedBy("select * from rented_item where rental_id = ? and book_id = ?", rentalId, bookId))
+            .isEqualTo("idx_rented_item_rental_book");
+        assertThat(indexUsedBy("select * from overdue_item where rental_id = ? and book_id = ?", rentalId, bookId))
+            .isEqualTo("idx_overdue_item_rental_book");
+        assertThat(indexUsedBy("select * from returned_item where rental_id = ? and book_id = ?", rentalId, bookId))
+            .isEqualTo("idx_returned_item_rental_book");
+    }
+
+    @Test
+    public void findRentedItemByBookIdUsesBookIndex() {
+        assertThat(indexUsedBy("select * from rented_item where book_id = ?", (FIRST_ID + 7) * 10 + 1))
+            .isEqualTo("idx_rented_item_book_id");
+    }
+
+    @Test
+    public void dueDateIndexCoversThePartitionFilter() {
+        List<String> columns = jdbcTemplate.queryForList("select column_name from information_schema.statistics " +
+            "where table_schema = database() and table_name = 'rented_item' and index_name = 'idx_rented_item_due_date' " +
+            "order by seq_in_index", String.class);
+        assertThat(columns).containsExactly("due_date", "id", "rental_id");
+    }
+
+    @Test
+    public void rentedItemHasOneIndexLedByRentalId() {
+        List<String> indexes = jdbcTemplate.queryForList("select index_name from information_schema.statistics " +
+            "where table_schema = database() and table_name = 'rented_item' and column_name = 'rental_id' and seq_in_index = 1",
+            String.class);
+        assertThat(indexes).containsExactly("idx_rented_item_rental_book");
+    }
+
+    private String indexUsedBy(String sql, Object... args) {
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("explain " + sql, args);
+        assertThat(plan).hasSize(1);
+        return (String) plan.get(0).get("key");
+    }
+}
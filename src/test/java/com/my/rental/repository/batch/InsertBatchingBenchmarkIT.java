@@ -0,0 +1,148 @@
+package com.my.rental.repository.batch;
+
+import com.my.rental.RentalApp;
+import com.my.rental.domain.Rental;
+import com.my.rental.domain.RentedItem;
+import com.my.rental.domain.ReturnedItem;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Inserts thousands of rented and returned items, once with the former IDENTITY ids and once with the
+ * pooled-lo {@code sequence_generator} ids, and compares the JDBC statements. Run with {@code ./gradlew benchmarkTest}.
+ * <p>
+ * The IDENTITY baseline is written with plain JDBC the way Hibernate wrote it, one insert per row reading back its
+ * generated key, so that no second mapping of the item tables joins the shared persistence unit.
+ */
+@SpringBootTest(classes = RentalApp.class, properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class InsertBatchingBenchmarkIT {
+
+    private static final int ROWS = 2000;
+    private static final int FLUSH_SIZE = 250;
+
+    private final Logger log = LoggerFactory.getLogger(InsertBatchingBenchmarkIT.class);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void sequenceIdsBatchInserts() {
+        Long rentalId = transactionTemplate.execute(status -> {
+            Rental rental = Rental.createRental(Long.MAX_VALUE);
+            em.persist(rental);
+            return rental.getId();
+        });
+
+        // 두 방식의 id 가 겹치지 않도록 측정이 끝날 때마다 넣은 행을 지운다
+        long identityStatements = measureIdentity(rentalId);
+        long sequenceStatements = measure("pooled-lo sequence", rentalId, i -> {
+            Rental rental = em.getReference(Rental.class, rentalId);
+            RentedItem rentedItem = RentedItem.createRentedItem((long) i, "title-" + i, LocalDate.now());
+            rentedItem.setRental(rental);
+            em.persist(rentedItem);
+            em.persist(ReturnedItem.createReturnedItem((long) i, "title-" + i, LocalDate.now()).rental(rental));
+        });
+
+        transactionTemplate.execute(status -> em.createQuery("delete from Rental r where r.id = :rentalId")
+            .setParameter("rentalId", rentalId).executeUpdate());
+
+        assertThat(sequenceStatements).isLessThan(identityStatements / 5);
+    }
+
+    private long measureIdentity(Long rentalId) {
+        long start = System.nanoTime();
+        Long statements = transactionTemplate.execute(status -> {
+            Connection connection = DataSourceUtils.getConnection(dataSource);
+            long count = 0;
+            try (PreparedStatement rentedItem = connection.prepareStatement(
+                    "insert into rented_item (book_id, rental_id) values (?, ?)", Statement.RETURN_GENERATED_KEYS);
+                 PreparedStatement returnedItem = connection.prepareStatement(
+                    "insert into returned_item (book_id, rental_id) values (?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+                for (int i = 1; i <= ROWS; i++) {
+                    // IDENTITY id 는 행마다 insert 를 실행해 생성된 키를 읽어야 하므로 배치로 묶이지 않는다
+                    count += insertReadingKey(rentedItem, i, rentalId);
+                    count += insertReadingKey(returnedItem, i, rentalId);
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            return count;
+        });
+        log.info("Inserted {} rows with identity ids: {} statements, {} ms",
+            2 * ROWS, statements, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        deleteItems(rentalId);
+        return statements;
+    }
+
+    private static int insertReadingKey(PreparedStatement insert, long bookId, Long rentalId) throws SQLException {
+        insert.setLong(1, bookId);
+        insert.setLong(2, rentalId);
+        insert.executeUpdate();
+        try (ResultSet keys = insert.getGeneratedKeys()) {
+            keys.next();
+        }
+        return 1;
+    }
+
+    private long measure(String name, Long rentalId, IntConsumer insert) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long start = System.nanoTime();
+        transactionTemplate.execute(status -> {
+            for (int i = 1; i <= ROWS; i++) {
+                insert.accept(i);
+                if (i % FLUSH_SIZE == 0) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+            return null;
+        });
+        long elapsed = System.nanoTime() - start;
+        log.info("Inserted {} rows with {} ids: {} statements, {} entity inserts, {} ms",
+            2 * ROWS, name, statistics.getPrepareStatementCount(), statistics.getEntityInsertCount(),
+            TimeUnit.NANOSECONDS.toMillis(elapsed));
+        long statements = statistics.getPrepareStatementCount();
+        deleteItems(rentalId);
+        return statements;
+    }
+
+    private void deleteItems(Long rentalId) {
+        transactionTemplate.execute(status -> {
+            em.createNativeQuery("delete from rented_item where rental_id = :rentalId").setParameter("rentalId", rentalId).executeUpdate();
+            em.createNativeQuery("delete from returned_item where rental_id = :rentalId").setParameter("rentalId", rentalId).executeUpdate();
+            return null;
+        });
+    }
+}
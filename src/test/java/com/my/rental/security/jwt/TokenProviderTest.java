@@ -35,6 +35,7 @@ public class TokenProviderTest {
             .decode("fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8"));
 
         ReflectionTestUtils.setField(tokenProvider, "key", key);
+        ReflectionTestUtils.setField(tokenProvider, "jwtParser", Jwts.parserBuilder().setSigningKey(key).build());
         ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", ONE_MINUTE);
     }
 
@@ -83,6 +84,59 @@ public class TokenProviderTest {
         assertThat(isTokenValid).isEqualTo(false);
     }
 
+    @Test
+    public void testResolveAuthenticationVerifiesTokenOnce() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        Authentication authentication = tokenProvider.resolveAuthentication(token);
+
+        assertThat(authentication.getName()).isEqualTo("anonymous");
+        assertThat(authentication.getCredentials()).isEqualTo(token);
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+            .containsExactly(AuthoritiesConstants.ANONYMOUS);
+
+        // 다른 키로 바꿔도 캐시된 토큰은 다시 검증하지 않는다
+        ReflectionTestUtils.setField(tokenProvider, "jwtParser", Jwts.parserBuilder()
+            .setSigningKey(Keys.hmacShaKeyFor(new byte[64])).build());
+        assertThat(tokenProvider.resolveAuthentication(token).getName()).isEqualTo("anonymous");
+    }
+
+    @Test
+    public void testResolveAuthenticationReturnsANewAuthenticationPerCall() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+        Authentication first = tokenProvider.resolveAuthentication(token);
+        ((UsernamePasswordAuthenticationToken) first).setDetails("request-1");
+        ((UsernamePasswordAuthenticationToken) first).eraseCredentials();
+
+        Authentication second = tokenProvider.resolveAuthentication(token);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getDetails()).isNull();
+        assertThat(second.getCredentials()).isEqualTo(token);
+        assertThat(second.getPrincipal()).isNotSameAs(first.getPrincipal());
+        assertThat(second.getAuthorities().iterator().next()).isSameAs(first.getAuthorities().iterator().next());
+    }
+
+    @Test
+    public void testResolveAuthenticationReturnsNullWhenJWTisInvalid() {
+        ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", -ONE_MINUTE);
+        String expiredToken = tokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(tokenProvider.resolveAuthentication(createTokenWithDifferentSignature())).isNull();
+        assertThat(tokenProvider.resolveAuthentication(expiredToken)).isNull();
+        assertThat(tokenProvider.resolveAuthentication("")).isNull();
+    }
+
+    @Test
+    public void testAuthoritiesAreSharedBetweenTokens() {
+        Authentication first = tokenProvider.getAuthentication(tokenProvider.createToken(createAuthentication(), false));
+        Authentication second = tokenProvider.getAuthentication(tokenProvider.createToken(
+            new UsernamePasswordAuthenticationToken("other", "other", createAuthentication().getAuthorities()), false));
+
+        assertThat(second.getAuthorities().iterator().next()).isSameAs(first.getAuthorities().iterator().next());
+        assertThat(second.getName()).isEqualTo("other");
+    }
+
     private Authentication createAuthentication() {
         Collection<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
@@ -0,0 +1,92 @@
+package com.my.rental.service;
+
+import com.my.rental.RentalApp;
+import com.my.rental.config.ApplicationProperties;
+import com.my.rental.domain.PersistentAuditEvent;
+import com.my.rental.repository.PersistenceAuditEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link AuditEventService}.
+ */
+@SpringBootTest(classes = RentalApp.class)
+public class AuditEventServiceIT {
+
+    private static final String PRINCIPAL = "audit-purge-user";
+
+    @Autowired
+    private AuditEventService auditEventService;
+
+    @Autowired
+    private PersistenceAuditEventRepository persistenceAuditEventRepository;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Instant now;
+
+    @BeforeEach
+    public void init() {
+        now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        transactionTemplate.execute(status -> {
+            for (int days = 1; days <= 5; days++) {
+                persistenceAuditEventRepository.save(event(PRINCIPAL, now.minus(days * 10L, ChronoUnit.DAYS)));
+                persistenceAuditEventRepository.save(event(PRINCIPAL + "-other", now.minus(days * 10L, ChronoUnit.DAYS)));
+            }
+            return null;
+        });
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        applicationProperties.getAudit().setPurgeChunkSize(1000);
+        transactionTemplate.execute(status -> {
+            persistenceAuditEventRepository.deleteAll(persistenceAuditEventRepository.findByPrincipal(PRINCIPAL));
+            persistenceAuditEventRepository.deleteAll(persistenceAuditEventRepository.findByPrincipal(PRINCIPAL + "-other"));
+            return null;
+        });
+    }
+
+    @Test
+    public void oldEventsAreRemovedInChunks() {
+        applicationProperties.getAudit().setPurgeChunkSize(2);
+
+        long removed = auditEventService.removeAuditEventsBefore(now.minus(25, ChronoUnit.DAYS));
+
+        assertThat(removed).isEqualTo(6);
+        assertThat(persistenceAuditEventRepository.findByPrincipal(PRINCIPAL)).hasSize(2)
+            .extracting(PersistentAuditEvent::getAuditEventDate)
+            .allMatch(date -> date.isAfter(now.minus(25, ChronoUnit.DAYS)));
+        assertThat(persistenceAuditEventRepository.findByPrincipal(PRINCIPAL + "-other")).hasSize(2);
+        Number orphanData = (Number) em.createNativeQuery("select count(*) from jhi_persistent_audit_evt_data d" +
+            " where not exists (select 1 from jhi_persistent_audit_event e where e.event_id = d.event_id)").getSingleResult();
+        assertThat(orphanData.intValue()).isZero();
+    }
+
+    private static PersistentAuditEvent event(String principal, Instant date) {
+        PersistentAuditEvent event = new PersistentAuditEvent();
+        event.setPrincipal(principal);
+        event.setAuditEventDate(date);
+        event.setAuditEventType("test-type");
+        event.setData(Collections.singletonMap("key", "value"));
+        return event;
+    }
+}
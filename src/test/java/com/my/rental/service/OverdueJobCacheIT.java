@@ -0,0 +1,86 @@
+package com.my.rental.service;
+
+import com.my.rental.RentalApp;
+import com.my.rental.domain.Rental;
+import com.my.rental.domain.RentedItem;
+import com.my.rental.repository.RentalRepository;
+import org.hibernate.Cache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the {@link OverdueJob} with the second-level cache enabled.
+ */
+@SpringBootTest(classes = RentalApp.class, properties = {
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+    "spring.jpa.properties.hibernate.cache.region.factory_class=com.hazelcast.hibernate.HazelcastCacheRegionFactory",
+    "spring.jpa.properties.hibernate.cache.keys_factory=simple",
+    "spring.jpa.properties.hibernate.cache.hazelcast.instance_name=rental"
+})
+public class OverdueJobCacheIT {
+
+    private static final LocalDate TODAY = LocalDate.of(2023, 3, 20);
+    private static final Long USER_ID = 8101L;
+    private static final String OVERDUE_ITEMS_ROLE = Rental.class.getName() + ".overdueItems";
+
+    @Autowired
+    private OverdueJob overdueJob;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long rentalId;
+
+    @AfterEach
+    public void cleanUp() {
+        transactionTemplate.execute(status -> {
+            rentalRepository.deleteById(rentalId);
+            return null;
+        });
+    }
+
+    @Test
+    public void cachedOverdueItemsAreEvicted() {
+        rentalId = transactionTemplate.execute(status -> {
+            Rental rental = Rental.createRental(USER_ID);
+            RentedItem rentedItem = RentedItem.createRentedItem(USER_ID * 10, "title", TODAY.minusWeeks(3));
+            rentedItem.setRental(rental);
+            rental.addRentedItem(rentedItem);
+            return rentalRepository.save(rental).getId();
+        });
+        // 빈 overdueItems 컬렉션을 2차 캐시에 올린다
+        transactionTemplate.execute(status -> {
+            assertThat(rentalRepository.findById(rentalId).get().getOverdueItems()).isEmpty();
+            return null;
+        });
+        assertThat(cache().containsCollection(OVERDUE_ITEMS_ROLE, rentalId)).isTrue();
+
+        assertThat(overdueJob.run(TODAY)).isEqualTo(1);
+        assertThat(cache().containsCollection(OVERDUE_ITEMS_ROLE, rentalId)).isFalse();
+
+        transactionTemplate.execute(status -> {
+            Rental rental = rentalRepository.findById(rentalId).get();
+            assertThat(rental.getRentedItems()).isEmpty();
+            assertThat(rental.getOverdueItems()).hasSize(1);
+            return null;
+        });
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.getCache().unwrap(Cache.class);
+    }
+}
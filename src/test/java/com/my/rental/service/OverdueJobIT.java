@@ -0,0 +1,136 @@
+package com.my.rental.service;
+
+import com.my.rental.RentalApp;
+import com.my.rental.domain.Rental;
+import com.my.rental.domain.RentedItem;
+import com.my.rental.domain.enumeration.RentalStatus;
+import com.my.rental.repository.ExpiredRentedItem;
+import com.my.rental.repository.RentalRepository;
+import com.my.rental.repository.RentalSummaryRepository;
+import com.my.rental.repository.RentedItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the {@link OverdueJob}.
+ */
+@SpringBootTest(classes = RentalApp.class, properties = {
+    "application.overdue.partitions=2",
+    "application.overdue.threads=2",
+    "application.overdue.chunk-size=2"
+})
+public class OverdueJobIT {
+
+    private static final LocalDate TODAY = LocalDate.of(2023, 3, 20);
+
+    @Autowired
+    private OverdueJob overdueJob;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private RentalService rentalService;
+
+    @Autowired
+    private RentedItemRepository rentedItemRepository;
+
+    @Autowired
+    private RentalSummaryRepository rentalSummaryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Long> rentalIds = new ArrayList<>();
+
+    @AfterEach
+    public void cleanUp() {
+        transactionTemplate.execute(status -> {
+            rentalIds.forEach(rentalRepository::deleteById);
+            return null;
+        });
+    }
+
+    @Test
+    public void expiredItemsAreMovedToOverdueItems() {
+        Long lateRentalId = createRental(8001L, TODAY.minusDays(3), TODAY.minusDays(1), TODAY.minusDays(1), TODAY);
+        Long otherLateRentalId = createRental(8002L, TODAY.minusDays(10));
+        Long onTimeRentalId = createRental(8003L, TODAY, TODAY.plusDays(5));
+
+        assertThat(overdueJob.run(TODAY)).isEqualTo(4);
+
+        transactionTemplate.execute(status -> {
+            Rental lateRental = rentalRepository.findById(lateRentalId).get();
+            assertThat(lateRental.getRentedItems()).hasSize(1);
+            assertThat(lateRental.getOverdueItems()).hasSize(3);
+            assertThat(lateRental.getRentalStatus()).isEqualTo(RentalStatus.RENT_UNAVAILABLE);
+            assertThat(lateRental.getLateFee()).isEqualTo(3 * Rental.LATE_FEE_PER_BOOK);
+            assertThat(lateRental.getVersion()).isPositive();
+
+            Rental otherLateRental = rentalRepository.findById(otherLateRentalId).get();
+            assertThat(otherLateRental.getOverdueItems()).hasSize(1);
+            assertThat(otherLateRental.getLateFee()).isEqualTo(Rental.LATE_FEE_PER_BOOK);
+
+            Rental onTimeRental = rentalRepository.findById(onTimeRentalId).get();
+            assertThat(onTimeRental.getRentedItems()).hasSize(2);
+            assertThat(onTimeRental.getOverdueItems()).isEmpty();
+            assertThat(onTimeRental.getRentalStatus()).isEqualTo(RentalStatus.OK);
+            assertThat(onTimeRental.getVersion()).isEqualTo(0L);
+            return null;
+        });
+        // 청크 크기가 2 이므로 첫 청크는 요약 행을 만들고 다음 청크는 그 행을 갱신한다
+        assertThat(rentalSummaryRepository.findById(8001L)).hasValueSatisfying(summary -> {
+            assertThat(summary.getRentedCount()).isEqualTo(1);
+            assertThat(summary.getOverdueCount()).isEqualTo(3);
+            assertThat(summary.getLateFee()).isEqualTo(3 * Rental.LATE_FEE_PER_BOOK);
+            assertThat(summary.getRentalStatus()).isEqualTo(RentalStatus.RENT_UNAVAILABLE);
+            assertThat(summary.getNextDueDate()).isEqualTo(TODAY);
+        });
+        assertThat(overdueJob.run(TODAY)).isZero();
+    }
+
+    @Test
+    public void itemReturnedAfterTheChunkWasReadIsNotMarkedOverdue() throws Exception {
+        Long rentalId = createRental(8004L, TODAY.minusDays(2), TODAY.minusDays(1));
+        List<ExpiredRentedItem> chunk = rentedItemRepository.findExpired(TODAY, 1, 0, LocalDate.of(1970, 1, 1), 0L, PageRequest.of(0, 100))
+            .stream().filter(item -> item.getRentalId().equals(rentalId)).collect(Collectors.toList());
+        assertThat(chunk).hasSize(2);
+
+        // 청크를 읽은 뒤 연체 처리 전에 첫 번째 도서가 반납된다
+        rentalService.returnBooks(8004L, 80040L);
+
+        assertThat(rentalService.beOverdueBooks(chunk)).isEqualTo(1);
+        transactionTemplate.execute(status -> {
+            Rental rental = rentalRepository.findById(rentalId).get();
+            assertThat(rental.getRentedItems()).isEmpty();
+            assertThat(rental.getOverdueItems()).containsOnlyKeys(80041L);
+            assertThat(rental.getLateFee()).isEqualTo(Rental.LATE_FEE_PER_BOOK);
+            return null;
+        });
+    }
+
+    private Long createRental(Long userId, LocalDate... dueDates) {
+        Long rentalId = transactionTemplate.execute(status -> {
+            Rental rental = Rental.createRental(userId);
+            for (int i = 0; i < dueDates.length; i++) {
+                RentedItem rentedItem = RentedItem.createRentedItem(userId * 10 + i, "title-" + i, dueDates[i].minusWeeks(2));
+                rentedItem.setRental(rental);
+                rental.addRentedItem(rentedItem);
+            }
+            return rentalRepository.save(rental).getId();
+        });
+        rentalIds.add(rentalId);
+        return rentalId;
+    }
+}
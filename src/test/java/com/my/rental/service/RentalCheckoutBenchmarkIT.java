@@ -0,0 +1,111 @@
+package com.my.rental.service;
+
+import com.my.rental.RentalApp;
+import com.my.rental.domain.Rental;
+import com.my.rental.repository.OutboxEventRepository;
+import com.my.rental.repository.RentalRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rents a full cart of books for many users, once as one rent command per book and once as a single
+ * multi-book rent command per user, and compares throughput and JDBC statements. Run with
+ * {@code ./gradlew benchmarkTest}.
+ */
+@SpringBootTest(classes = RentalApp.class, properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class RentalCheckoutBenchmarkIT {
+
+    private static final int USERS = 200;
+    private static final int CART_SIZE = 5;
+    private static final long FIRST_USER_ID = 500000L;
+
+    private final Logger log = LoggerFactory.getLogger(RentalCheckoutBenchmarkIT.class);
+
+    @Autowired
+    private RentalService rentalService;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Long> rentalIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        transactionTemplate.execute(status -> {
+            rentalIds.forEach(rentalRepository::deleteById);
+            outboxEventRepository.deleteAll();
+            return null;
+        });
+    }
+
+    @Test
+    void cartCheckoutOutperformsSingleRents() throws Exception {
+        createRentals(FIRST_USER_ID);
+        createRentals(FIRST_USER_ID + USERS);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long start = System.nanoTime();
+        for (long userId = FIRST_USER_ID; userId < FIRST_USER_ID + USERS; userId++) {
+            for (long bookId = 1; bookId <= CART_SIZE; bookId++) {
+                rentalService.rentBook(userId, bookId, "title-" + bookId);
+            }
+        }
+        long singleNanos = System.nanoTime() - start;
+        long singleStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        start = System.nanoTime();
+        for (long userId = FIRST_USER_ID + USERS; userId < FIRST_USER_ID + 2 * USERS; userId++) {
+            Map<Long, String> cart = new LinkedHashMap<>();
+            for (long bookId = 1; bookId <= CART_SIZE; bookId++) {
+                cart.put(bookId, "title-" + bookId);
+            }
+            rentalService.rentBooks(userId, cart);
+        }
+        long cartNanos = System.nanoTime() - start;
+        long cartStatements = statistics.getPrepareStatementCount();
+
+        log.info("{} single rents: {} books/s, {} statements", USERS * CART_SIZE, booksPerSecond(singleNanos), singleStatements);
+        log.info("{} cart checkouts of {} books: {} books/s, {} statements", USERS, CART_SIZE, booksPerSecond(cartNanos), cartStatements);
+        assertThat(cartStatements).isLessThan(singleStatements);
+    }
+
+    private void createRentals(long firstUserId) {
+        transactionTemplate.execute(status -> {
+            for (long userId = firstUserId; userId < firstUserId + USERS; userId++) {
+                rentalIds.add(rentalRepository.save(Rental.createRental(userId)).getId());
+            }
+            return null;
+        });
+    }
+
+    private long booksPerSecond(long nanos) {
+        return USERS * CART_SIZE * TimeUnit.SECONDS.toNanos(1) / nanos;
+    }
+}
@@ -0,0 +1,180 @@
+package com.my.rental.service;
+
+import com.my.rental.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the {@link RentalCommandExecutor}.
+ */
+public class RentalCommandExecutorTest {
+
+    private MeterRegistry meterRegistry;
+    private RentalCommandExecutor rentalCommandExecutor;
+    private ExecutorService callers;
+
+    @BeforeEach
+    public void setUp() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getRental().setCommandLanes(4);
+        applicationProperties.getRental().setCommandQueueCapacity(2);
+        applicationProperties.getRental().setMaxAttempts(2);
+        applicationProperties.getRental().setRetryBackoffMs(200);
+        meterRegistry = new SimpleMeterRegistry();
+        rentalCommandExecutor = new RentalCommandExecutor(applicationProperties, meterRegistry);
+        callers = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        callers.shutdownNow();
+        rentalCommandExecutor.shutdown();
+    }
+
+    @Test
+    public void commandsOfOneUserRunOneAtATime() throws Exception {
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            int command = i;
+            results.add(callers.submit(() -> rentalCommandExecutor.execute(1L, () -> {
+                order.add(command);
+                Thread.sleep(20);
+                order.add(command);
+                return command;
+            })));
+        }
+        for (Future<Integer> result : results) {
+            result.get(5, TimeUnit.SECONDS);
+        }
+
+        assertThat(order).hasSize(6);
+        for (int i = 0; i < order.size(); i += 2) {
+            assertThat(order.get(i)).isEqualTo(order.get(i + 1));
+        }
+    }
+
+    @Test
+    public void commandsOfOtherUsersRunInParallel() throws Exception {
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        Future<Boolean> first = callers.submit(() -> rentalCommandExecutor.execute(1L, () -> {
+            bothRunning.countDown();
+            return bothRunning.await(5, TimeUnit.SECONDS);
+        }));
+        Future<Boolean> second = callers.submit(() -> rentalCommandExecutor.execute(2L, () -> {
+            bothRunning.countDown();
+            return bothRunning.await(5, TimeUnit.SECONDS);
+        }));
+
+        assertThat(first.get(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(second.get(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void commandExceptionIsRethrown() {
+        assertThatThrownBy(() -> rentalCommandExecutor.execute(1L, () -> {
+            throw new IllegalStateException("rental limit");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("rental limit");
+    }
+
+    @Test
+    public void concurrencyFailureIsRetriedWithoutBlockingTheLane() throws Exception {
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch failed = new CountDownLatch(1);
+        AtomicInteger attempts = new AtomicInteger();
+        Future<String> retried = callers.submit(() -> rentalCommandExecutor.execute(1L, () -> {
+            order.add("retried-" + attempts.incrementAndGet());
+            if (attempts.get() == 1) {
+                failed.countDown();
+                throw new OptimisticLockingFailureException("lost update");
+            }
+            return "retried";
+        }));
+        failed.await(5, TimeUnit.SECONDS);
+
+        // 같은 레인의 명령은 재시도 대기 중에 실행된다
+        assertThat(rentalCommandExecutor.execute(5L, () -> order.add("other"))).isTrue();
+        assertThat(retried.get(5, TimeUnit.SECONDS)).isEqualTo("retried");
+        assertThat(order).containsExactly("retried-1", "other", "retried-2");
+        assertThat(meterRegistry.get("rental.concurrency.retries").tag("mode", "optimistic").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void concurrencyFailureIsRethrownAfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+        assertThatThrownBy(() -> rentalCommandExecutor.execute(1L, () -> {
+            attempts.incrementAndGet();
+            throw new OptimisticLockingFailureException("lost update");
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(meterRegistry.get("rental.concurrency.exhausted").tag("mode", "optimistic").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void commandTimesOutAndIsNotRunLater() throws Exception {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getRental().setCommandLanes(1);
+        applicationProperties.getRental().setCommandTimeoutMs(100);
+        RentalCommandExecutor timingOutExecutor = new RentalCommandExecutor(applicationProperties, meterRegistry);
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch running = new CountDownLatch(1);
+            AtomicBoolean ran = new AtomicBoolean();
+            callers.submit(() -> timingOutExecutor.execute(1L, () -> {
+                running.countDown();
+                return release.await(5, TimeUnit.SECONDS);
+            }));
+            running.await(5, TimeUnit.SECONDS);
+
+            assertThatThrownBy(() -> timingOutExecutor.execute(2L, () -> ran.getAndSet(true)))
+                .isInstanceOf(RentalCommandTimeoutException.class);
+            release.countDown();
+            // 레인이 비었는지 다음 명령으로 확인한다
+            assertThat(timingOutExecutor.execute(3L, () -> true)).isTrue();
+            assertThat(ran).isFalse();
+            assertThat(meterRegistry.get("rental.command.timeout").counter().count()).isGreaterThanOrEqualTo(1);
+        } finally {
+            timingOutExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void fullLaneRejectsCommands() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        // 하나는 실행 중, 두 개는 큐에서 대기
+        callers.submit(() -> rentalCommandExecutor.execute(1L, () -> {
+            running.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }));
+        running.await(5, TimeUnit.SECONDS);
+        callers.submit(() -> rentalCommandExecutor.execute(5L, () -> true));
+        callers.submit(() -> rentalCommandExecutor.execute(9L, () -> true));
+        while (meterRegistry.get("rental.command.queue.depth").tag("lane", "1").gauge().value() < 2) {
+            Thread.sleep(5);
+        }
+
+        assertThatThrownBy(() -> rentalCommandExecutor.execute(13L, () -> true))
+            .isInstanceOf(RentalCommandRejectedException.class);
+        assertThat(meterRegistry.get("rental.command.rejected").counter().count()).isEqualTo(1);
+        release.countDown();
+    }
+}
@@ -0,0 +1,118 @@
+package com.my.rental.service;
+
+import com.my.rental.RentalApp;
+import com.my.rental.config.ApplicationProperties;
+import com.my.rental.domain.Rental;
+import com.my.rental.repository.OutboxEventRepository;
+import com.my.rental.repository.RentalRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for concurrent rent requests on the same {@link Rental}, in both
+ * {@link ApplicationProperties.ConcurrencyMode}s.
+ * <p>
+ * Each request goes through the {@link RentalCommandExecutor} of one of {@value #NODES} simulated nodes,
+ * so the requests of one user still race each other on the database.
+ */
+@SpringBootTest(classes = RentalApp.class, properties = "application.rental.max-attempts=20")
+public class RentalConcurrencyIT {
+
+    private static final Long USER_ID = 9000L;
+    private static final int REQUESTS = 10;
+    private static final int RENTAL_LIMIT = 5;
+    private static final int NODES = REQUESTS;
+
+    @Autowired
+    private RentalService rentalService;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    public void cleanUp() {
+        applicationProperties.getRental().setConcurrencyMode(ApplicationProperties.ConcurrencyMode.OPTIMISTIC);
+        transactionTemplate.execute(status -> {
+            rentalRepository.findByUserId(USER_ID).ifPresent(rentalRepository::delete);
+            outboxEventRepository.deleteAll();
+            return null;
+        });
+    }
+
+    @ParameterizedTest
+    @EnumSource(ApplicationProperties.ConcurrencyMode.class)
+    public void concurrentRentRequestsRespectRentalLimit(ApplicationProperties.ConcurrencyMode mode) throws Exception {
+        applicationProperties.getRental().setConcurrencyMode(mode);
+        rentalRepository.saveAndFlush(Rental.createRental(USER_ID));
+
+        List<RentalCommandExecutor> nodes = new ArrayList<>();
+        for (int i = 0; i < NODES; i++) {
+            nodes.add(new RentalCommandExecutor(applicationProperties, meterRegistry));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(REQUESTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (long bookId = 1; bookId <= REQUESTS; bookId++) {
+            long rentedBookId = bookId;
+            RentalCommandExecutor node = nodes.get((int) (bookId % NODES));
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    node.execute(USER_ID, () -> rentalService.rentBook(USER_ID, rentedBookId, "title-" + rentedBookId));
+                    return true;
+                } catch (Exception e) {
+                    // 대출 한도 초과로 거절된 요청
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+        int succeeded = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(30, TimeUnit.SECONDS)) {
+                succeeded++;
+            }
+        }
+        executor.shutdown();
+        for (RentalCommandExecutor node : nodes) {
+            node.shutdown();
+        }
+
+        int rentedItems = transactionTemplate.execute(status ->
+            rentalRepository.findByUserId(USER_ID).get().getRentedItems().size());
+        assertThat(succeeded).isEqualTo(RENTAL_LIMIT);
+        assertThat(rentedItems).isEqualTo(RENTAL_LIMIT);
+        assertThat(meterRegistry.get("rental.concurrency.exhausted").counters())
+            .allSatisfy(exhausted -> assertThat(exhausted.count()).isZero());
+        if (mode == ApplicationProperties.ConcurrencyMode.PESSIMISTIC) {
+            assertThat(meterRegistry.get("rental.concurrency.lock.wait").timer().count()).isGreaterThanOrEqualTo(REQUESTS);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.my.rental.service;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.my.rental.RentalApp;
+import com.my.rental.domain.Rental;
+import com.my.rental.repository.OutboxEventRepository;
+import com.my.rental.repository.RentalRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the {@link RentalIdCache} and its use by the rental commands.
+ */
+@SpringBootTest(classes = RentalApp.class)
+public class RentalIdCacheIT {
+
+    private static final Long USER_ID = 9200L;
+
+    @Autowired
+    private RentalService rentalService;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private IMap<Long, Long> rentalIds;
+
+    @BeforeEach
+    public void setUp() {
+        rentalIds = hazelcastInstance.getMap(RentalIdCache.MAP_NAME);
+        rentalIds.delete(USER_ID);
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        transactionTemplate.execute(status -> {
+            rentalRepository.findByUserId(USER_ID).ifPresent(rentalRepository::delete);
+            outboxEventRepository.deleteAll();
+            return null;
+        });
+        rentalIds.delete(USER_ID);
+    }
+
+    @Test
+    public void rentalIdIsCachedOnceCommitted() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RentalIdCache rentalIdCache = new RentalIdCache(rentalRepository, hazelcastInstance, meterRegistry);
+
+        Long rentalId = transactionTemplate.execute(status -> {
+            Rental rental = rentalRepository.save(Rental.createRental(USER_ID));
+            assertThat(rentalIdCache.findRentalId(USER_ID)).contains(rental.getId());
+            assertThat(rentalIds.containsKey(USER_ID)).isFalse();
+            return rental.getId();
+        });
+        assertThat(rentalIds.get(USER_ID)).isEqualTo(rentalId);
+
+        assertThat(rentalIdCache.findRentalId(USER_ID)).contains(rentalId);
+        assertThat(rentalIdCache.findRentalId(USER_ID + 1)).isEmpty();
+        assertThat(rentalIds.containsKey(USER_ID + 1)).isFalse();
+        assertThat(meterRegistry.counter("rental.id.cache", "result", "hit").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("rental.id.cache", "result", "miss").count()).isEqualTo(2);
+    }
+
+    @Test
+    public void rollbackDoesNotCacheRentalId() {
+        transactionTemplate.execute(status -> {
+            rentalService.save(Rental.createRental(USER_ID));
+            rentalService.releaseOverdue(USER_ID);
+            status.setRollbackOnly();
+            return null;
+        });
+
+        assertThat(rentalIds.containsKey(USER_ID)).isFalse();
+    }
+
+    @Test
+    public void commandsReplaceStaleRentalId() throws Exception {
+        Rental rental = rentalService.save(Rental.createRental(USER_ID));
+        // 데이터베이스에서 직접 지워지고 다시 만들어진 rental 의 이전 id 가 남아 있는 경우
+        rentalIds.set(USER_ID, rental.getId() + 1000);
+
+        rentalService.rentBook(USER_ID, 1L, "title-1");
+
+        assertThat(rentalIds.get(USER_ID)).isEqualTo(rental.getId());
+        Set<Long> rentedBookIds = transactionTemplate.execute(status ->
+            new HashSet<>(rentalRepository.findByUserId(USER_ID).get().getRentedItems().keySet()));
+        assertThat(rentedBookIds).containsOnly(1L);
+    }
+
+    @Test
+    public void deleteEvictsRentalId() throws Exception {
+        Rental rental = rentalService.save(Rental.createRental(USER_ID));
+        rentalService.rentBook(USER_ID, 1L, "title-1");
+        assertThat(rentalIds.get(USER_ID)).isEqualTo(rental.getId());
+
+        rentalService.delete(rental.getId());
+
+        assertThat(rentalIds.containsKey(USER_ID)).isFalse();
+    }
+}
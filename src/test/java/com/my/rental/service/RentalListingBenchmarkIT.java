@@ -0,0 +1,116 @@
+package com.my.rental.service;
+
+import com.my.rental.RentalApp;
+import com.my.rental.repository.RentalRepository;
+import com.my.rental.web.rest.dto.RentalDTO;
+import com.my.rental.web.rest.mapper.RentalMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lists pages of seeded rentals once by loading {@link com.my.rental.domain.Rental} entities and mapping them with
+ * {@link RentalMapper}, and once through the {@link com.my.rental.repository.RentalListItem} projection used by
+ * {@link RentalService#findAll(Pageable)}, and compares the latency and the bytes allocated by the calling thread.
+ * Run with {@code ./gradlew benchmarkTest}.
+ */
+@SpringBootTest(classes = RentalApp.class)
+class RentalListingBenchmarkIT {
+
+    private static final int RENTAL_COUNT = 100_000;
+    private static final int PAGE_SIZE = 1000;
+    private static final int ROUNDS = 3;
+    private static final long FIRST_ID = 30_000_000L;
+
+    private final Logger log = LoggerFactory.getLogger(RentalListingBenchmarkIT.class);
+
+    @Autowired
+    private RentalService rentalService;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private RentalMapper rentalMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void seed() {
+        transactionTemplate.execute(status -> {
+            List<Object[]> rentals = new ArrayList<>(10_000);
+            for (long id = FIRST_ID; id < FIRST_ID + RENTAL_COUNT; id++) {
+                rentals.add(new Object[]{id, id, "OK", 0L});
+                if (rentals.size() == 10_000) {
+                    jdbcTemplate.batchUpdate("insert into rental (id, user_id, rental_status, late_fee) values (?, ?, ?, ?)", rentals);
+                    rentals.clear();
+                }
+            }
+            return null;
+        });
+    }
+
+    @AfterEach
+    void cleanUp() {
+        transactionTemplate.execute(status -> jdbcTemplate.update("delete from rental where id >= ?", FIRST_ID));
+    }
+
+    @Test
+    void projectionListsWithLessAllocation() {
+        // 이전 경로: 엔티티를 읽어(영속성 컨텍스트, 2차 캐시) MapStruct 로 DTO 를 만든다
+        Function<Pageable, Page<RentalDTO>> entityPath = pageable -> transactionTemplate.execute(status ->
+            rentalRepository.findAll(pageable).map(rentalMapper::toDto));
+        Function<Pageable, Page<RentalDTO>> projectionPath = rentalService::findAll;
+
+        long[] entity = new long[2];
+        long[] projection = new long[2];
+        for (int round = 0; round < ROUNDS; round++) {
+            // 첫 라운드는 워밍업으로 버린다
+            entity = measure(entityPath);
+            projection = measure(projectionPath);
+        }
+        log.info("Listed {} rentals by {}: entities {} ms {} MB, projection {} ms {} MB", RENTAL_COUNT, PAGE_SIZE,
+            entity[0], entity[1] >> 20, projection[0], projection[1] >> 20);
+
+        Pageable firstPage = PageRequest.of(0, PAGE_SIZE, Sort.by("id"));
+        assertThat(projectionPath.apply(firstPage).getContent()).usingFieldByFieldElementComparator()
+            .isEqualTo(entityPath.apply(firstPage).getContent());
+        assertThat(projection[1]).isLessThan(entity[1]);
+    }
+
+    private long[] measure(Function<Pageable, Page<RentalDTO>> path) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        int rows = 0;
+        for (int page = 0; page < RENTAL_COUNT / PAGE_SIZE; page++) {
+            rows += path.apply(PageRequest.of(page, PAGE_SIZE, Sort.by("id"))).getNumberOfElements();
+        }
+        long elapsed = System.nanoTime() - start;
+        assertThat(rows).isGreaterThanOrEqualTo(RENTAL_COUNT);
+        return new long[]{TimeUnit.NANOSECONDS.toMillis(elapsed), threads.getThreadAllocatedBytes(threadId) - allocatedBefore};
+    }
+}
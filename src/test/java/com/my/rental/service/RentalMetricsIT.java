@@ -0,0 +1,106 @@
+package com.my.rental.service;
+
+import com.my.rental.RentalApp;
+import com.my.rental.domain.Rental;
+import com.my.rental.domain.exception.BookAlreadyRentedException;
+import com.my.rental.domain.exception.RentalItemNotFoundException;
+import com.my.rental.repository.OutboxEventRepository;
+import com.my.rental.repository.RentalRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for the {@link RentalMetrics} recorded by the rental commands.
+ */
+@SpringBootTest(classes = RentalApp.class)
+public class RentalMetricsIT {
+
+    private static final Long USER_ID = 9300L;
+
+    @Autowired
+    private RentalService rentalService;
+
+    @Autowired
+    private RentalMetrics rentalMetrics;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    public void cleanUp() {
+        transactionTemplate.execute(status -> {
+            rentalRepository.findByUserId(USER_ID).ifPresent(rentalRepository::delete);
+            outboxEventRepository.deleteAll();
+            return null;
+        });
+    }
+
+    @Test
+    public void commandsAreTimedByOutcome() throws Exception {
+        rentalService.save(Rental.createRental(USER_ID));
+        long rented = commandCount("rentBook", RentalMetrics.SUCCESS);
+        long notFound = commandCount("returnBooks", RentalMetrics.NOT_FOUND);
+        long rolledBack = commandCount("rentBook", RentalMetrics.ROLLBACK);
+        long rejected = commandCount("rentBook", RentalMetrics.REJECTED);
+
+        rentalService.rentBook(USER_ID, 1L, "title-1");
+        assertThatThrownBy(() -> rentalService.rentBook(USER_ID, 1L, "title-1")).isInstanceOf(BookAlreadyRentedException.class);
+        assertThatThrownBy(() -> rentalService.returnBooks(USER_ID, 2L)).isInstanceOf(RentalItemNotFoundException.class);
+        // 명령은 성공했지만 감싸는 트랜잭션이 롤백되었다
+        transactionTemplate.execute(status -> {
+            try {
+                rentalService.rentBook(USER_ID, 3L, "title-3");
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            status.setRollbackOnly();
+            return null;
+        });
+
+        assertThat(commandCount("rentBook", RentalMetrics.SUCCESS)).isEqualTo(rented + 1);
+        assertThat(commandCount("returnBooks", RentalMetrics.NOT_FOUND)).isEqualTo(notFound + 1);
+        assertThat(commandCount("rentBook", RentalMetrics.ROLLBACK)).isEqualTo(rolledBack + 1);
+        assertThat(commandCount("rentBook", RentalMetrics.REJECTED)).isEqualTo(rejected + 1);
+        // 결과별 타이머는 명령을 처음 기록할 때 한 번에 등록된다
+        assertThat(meterRegistry.find(RentalMetrics.COMMAND_TIMER).tag("command", "rentBook").timers()).hasSize(6);
+    }
+
+    @Test
+    public void overdueBookIsCountedInTheGauges() throws Exception {
+        Rental rental = rentalService.save(Rental.createRental(USER_ID));
+        rentalMetrics.refreshGauges();
+        double active = meterRegistry.get("rental.active").gauge().value();
+        double overdue = meterRegistry.get("rental.overdue.books").gauge().value();
+        double lateFees = meterRegistry.get("rental.late.fee.outstanding").gauge().value();
+
+        rentalService.rentBook(USER_ID, 1L, "title-1");
+        rentalService.beOverdueBook(rental.getId(), 1L);
+        rentalMetrics.refreshGauges();
+
+        assertThat(meterRegistry.get("rental.active").gauge().value()).isEqualTo(active + 1);
+        assertThat(meterRegistry.get("rental.overdue.books").gauge().value()).isEqualTo(overdue + 1);
+        assertThat(meterRegistry.get("rental.late.fee.outstanding").gauge().value()).isEqualTo(lateFees + Rental.LATE_FEE_PER_BOOK);
+    }
+
+    private long commandCount(String command, String outcome) {
+        Timer timer = meterRegistry.find(RentalMetrics.COMMAND_TIMER).tag("command", command).tag("outcome", outcome).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
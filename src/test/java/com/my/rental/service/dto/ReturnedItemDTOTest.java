@@ -0,0 +1,24 @@
+package com.my.rental.service.dto;
+
+import com.my.rental.web.rest.dto.ReturnedItemDTO;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import com.my.rental.web.rest.TestUtil;
+
+public class ReturnedItemDTOTest {
+
+    @Test
+    public void dtoEqualsVerifier() throws Exception {
+        TestUtil.equalsVerifier(ReturnedItemDTO.class);
+        ReturnedItemDTO returnedItemDTO1 = new ReturnedItemDTO();
+        returnedItemDTO1.setId(1L);
+        ReturnedItemDTO returnedItemDTO2 = new ReturnedItemDTO();
+        assertThat(returnedItemDTO1).isNotEqualTo(returnedItemDTO2);
+        returnedItemDTO2.setId(returnedItemDTO1.getId());
+        assertThat(returnedItemDTO1).isEqualTo(returnedItemDTO2);
+        returnedItemDTO2.setId(2L);
+        assertThat(returnedItemDTO1).isNotEqualTo(returnedItemDTO2);
+        returnedItemDTO1.setId(null);
+        assertThat(returnedItemDTO1).isNotEqualTo(returnedItemDTO2);
+    }
+}
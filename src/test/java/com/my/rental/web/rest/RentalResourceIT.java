@@ -1,11 +1,13 @@
 package com.my.rental.web.rest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.my.rental.RentalApp;
 import com.my.rental.domain.Rental;
 import com.my.rental.repository.RentalRepository;
 import com.my.rental.service.RentalService;
 import com.my.rental.web.rest.dto.RentalDTO;
 import com.my.rental.web.rest.mapper.RentalMapper;
+import com.my.rental.web.rest.util.NdjsonWriter;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,6 +22,7 @@ import javax.persistence.EntityManager;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -51,6 +54,9 @@ public class RentalResourceIT {
     @Autowired
     private EntityManager em;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Autowired
     private MockMvc restRentalMockMvc;
 
@@ -155,6 +161,49 @@ public class RentalResourceIT {
             .andExpect(jsonPath("$.userId").value(DEFAULT_USER_ID.intValue()))
             .andExpect(jsonPath("$.rentalStatus").value(DEFAULT_RENTAL_STATUS.toString()));
     }
+    @Test
+    @Transactional
+    public void getAllRentalsAfterId() throws Exception {
+        // Initialize the database
+        Rental first = rentalRepository.saveAndFlush(createEntity(em));
+        Rental second = rentalRepository.saveAndFlush(createUpdatedEntity(em));
+
+        // Get the rentals after the first one, one at a time
+        restRentalMockMvc.perform(get("/api/rentals?after={id}&size=1", first.getId() - 1))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(first.getId().intValue()))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().string("Link", containsString("after=" + first.getId() + "&size=1>; rel=\"next\"")));
+
+        restRentalMockMvc.perform(get("/api/rentals?after={id}&size=1&count=true", first.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(second.getId().intValue()))
+            .andExpect(header().string("X-Total-Count", String.valueOf(rentalRepository.count())));
+
+        restRentalMockMvc.perform(get("/api/rentals?after=0&size=0"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    public void exportRentals() throws Exception {
+        // Initialize the database
+        Rental available = rentalRepository.saveAndFlush(createEntity(em));
+        Rental unavailable = rentalRepository.saveAndFlush(createUpdatedEntity(em));
+
+        // Export the unavailable rentals, one JSON document per line
+        String content = restRentalMockMvc.perform(get("/api/rentals/export?status={status}", UPDATED_RENTAL_STATUS))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(NdjsonWriter.APPLICATION_NDJSON_VALUE))
+            .andReturn().getResponse().getContentAsString();
+
+        List<RentalDTO> exported = objectMapper.readerFor(RentalDTO.class).<RentalDTO>readValues(content).readAll();
+        assertThat(content.split("\n")).hasSameSizeAs(exported);
+        assertThat(exported).extracting(RentalDTO::getId).contains(unavailable.getId()).doesNotContain(available.getId()).isSorted();
+        assertThat(exported).extracting(RentalDTO::getRentalStatus).containsOnly(UPDATED_RENTAL_STATUS);
+    }
+
     @Test
     @Transactional
     public void getNonExistingRental() throws Exception {
@@ -212,6 +261,32 @@ public class RentalResourceIT {
         assertThat(rentalList).hasSize(databaseSizeBeforeUpdate);
     }
 
+    @Test
+    @Transactional
+    public void updateRentalWithoutVersion() throws Exception {
+        // Initialize the database
+        rentalRepository.saveAndFlush(rental);
+
+        int databaseSizeBeforeUpdate = rentalRepository.findAll().size();
+
+        // Update the rental without the version read with it
+        Rental updatedRental = rentalRepository.findById(rental.getId()).get();
+        em.detach(updatedRental);
+        updatedRental.userId(UPDATED_USER_ID);
+        RentalDTO rentalDTO = rentalMapper.toDto(updatedRental);
+        rentalDTO.setVersion(null);
+
+        restRentalMockMvc.perform(put("/api/rentals")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(rentalDTO)))
+            .andExpect(status().isBadRequest());
+
+        // Validate the Rental in the database
+        List<Rental> rentalList = rentalRepository.findAll();
+        assertThat(rentalList).hasSize(databaseSizeBeforeUpdate);
+        assertThat(rentalRepository.findById(rental.getId()).get().getUserId()).isEqualTo(DEFAULT_USER_ID);
+    }
+
     @Test
     @Transactional
     public void deleteRental() throws Exception {
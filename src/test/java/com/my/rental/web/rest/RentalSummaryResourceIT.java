@@ -0,0 +1,174 @@
+package com.my.rental.web.rest;
+
+import com.my.rental.RentalApp;
+import com.my.rental.domain.Rental;
+import com.my.rental.domain.RentalSummary;
+import com.my.rental.domain.enumeration.RentalStatus;
+import com.my.rental.repository.RentalRepository;
+import com.my.rental.repository.RentalSummaryRepository;
+import com.my.rental.security.AuthoritiesConstants;
+import com.my.rental.service.RentalService;
+import com.my.rental.web.rest.mapper.RentalMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for the {@link RentalSummaryResource} REST controller and the maintenance of the read model
+ * by the rental commands.
+ */
+@SpringBootTest(classes = RentalApp.class)
+@AutoConfigureMockMvc
+@WithMockUser
+public class RentalSummaryResourceIT {
+
+    private static final Long USER_ID = 9101L;
+
+    @Autowired
+    private RentalService rentalService;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private RentalSummaryRepository rentalSummaryRepository;
+
+    @Autowired
+    private RentalMapper rentalMapper;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MockMvc restRentalSummaryMockMvc;
+
+    @Test
+    @Transactional
+    public void summaryFollowsRentalCommands() throws Exception {
+        Rental rental = rentalService.save(Rental.createRental(USER_ID));
+        assertSummary(0, 0, 0, RentalStatus.OK, null);
+
+        rentalService.rentBook(USER_ID, 1L, "title-1");
+        rentalService.rentBook(USER_ID, 2L, "title-2");
+        LocalDate dueDate = rentalRepository.findById(rental.getId()).get().getRentedItems().get(1L).getDueDate();
+        assertSummary(2, 0, 0, RentalStatus.OK, dueDate);
+
+        rentalService.returnBooks(USER_ID, 1L);
+        assertSummary(1, 0, 0, RentalStatus.OK, dueDate);
+
+        rentalService.beOverdueBook(rental.getId(), 2L);
+        assertSummary(0, 1, Rental.LATE_FEE_PER_BOOK, RentalStatus.RENT_UNAVAILABLE, null);
+
+        rentalService.returnOverdueBook(USER_ID, 2L);
+        assertSummary(0, 0, Rental.LATE_FEE_PER_BOOK, RentalStatus.RENT_UNAVAILABLE, null);
+
+        rentalService.releaseOverdue(USER_ID);
+        assertSummary(0, 0, 0, RentalStatus.RENT_AVAILABLE, null);
+
+        restRentalSummaryMockMvc.perform(get("/api/rental-summaries/{userId}", USER_ID))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.userId").value(USER_ID.intValue()))
+            .andExpect(jsonPath("$.rentalId").value(rental.getId().intValue()))
+            .andExpect(jsonPath("$.rentalStatus").value(RentalStatus.RENT_AVAILABLE.toString()))
+            .andExpect(jsonPath("$.rentedCount").value(0))
+            .andExpect(jsonPath("$.overdueCount").value(0))
+            .andExpect(jsonPath("$.lateFee").value(0));
+    }
+
+    @Test
+    @Transactional
+    public void summaryMovesWithItsRental() throws Exception {
+        Long newUserId = USER_ID + 2;
+        Rental rental = rentalService.save(Rental.createRental(USER_ID));
+        rentalService.rentBook(USER_ID, 1L, "title-1");
+        em.flush();
+
+        Rental movedRental = rentalRepository.findById(rental.getId()).get();
+        em.detach(movedRental);
+        movedRental.setUserId(newUserId);
+        restRentalSummaryMockMvc.perform(put("/api/rentals")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(rentalMapper.toDto(movedRental))))
+            .andExpect(status().isOk());
+
+        restRentalSummaryMockMvc.perform(get("/api/rental-summaries/{userId}", newUserId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.rentalId").value(rental.getId().intValue()))
+            .andExpect(jsonPath("$.rentedCount").value(1));
+        restRentalSummaryMockMvc.perform(get("/api/rental-summaries/{userId}", USER_ID))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    public void getNonExistingRentalSummary() throws Exception {
+        restRentalSummaryMockMvc.perform(get("/api/rental-summaries/{userId}", Long.MAX_VALUE))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    public void rebuildRecomputesSummariesFromItemTables() throws Exception {
+        // 재구성은 별도 스레드의 트랜잭션에서 실행되므로 커밋된 데이터로 검증한다
+        Long userId = USER_ID + 1;
+        Rental rental = rentalService.save(Rental.createRental(userId));
+        try {
+            rentalService.rentBook(userId, 1L, "title-1");
+            rentalService.rentBook(userId, 2L, "title-2");
+            rentalService.beOverdueBook(rental.getId(), 2L);
+            RentalSummary maintained = rentalSummaryRepository.findById(userId).get();
+
+            // 요약을 망가뜨린 뒤 다시 계산한다
+            transactionTemplate.execute(status -> rentalSummaryRepository.applyOverdueChanges(userId, 5, RentalStatus.OK, 0));
+            restRentalSummaryMockMvc.perform(post("/api/rental-summaries/rebuild"))
+                .andExpect(status().isOk());
+
+            assertThat(rentalSummaryRepository.findById(userId).get()).isEqualToComparingFieldByField(maintained);
+        } finally {
+            transactionTemplate.execute(status -> {
+                rentalRepository.deleteById(rental.getId());
+                return null;
+            });
+        }
+    }
+
+    @Test
+    @Transactional
+    public void rebuildIsForAdmins() throws Exception {
+        restRentalSummaryMockMvc.perform(post("/api/rental-summaries/rebuild"))
+            .andExpect(status().isForbidden());
+    }
+
+    private void assertSummary(int rentedCount, int overdueCount, long lateFee, RentalStatus rentalStatus, LocalDate nextDueDate) {
+        RentalSummary summary = summary();
+        assertThat(summary.getRentedCount()).isEqualTo(rentedCount);
+        assertThat(summary.getOverdueCount()).isEqualTo(overdueCount);
+        assertThat(summary.getLateFee()).isEqualTo(lateFee);
+        assertThat(summary.getRentalStatus()).isEqualTo(rentalStatus);
+        assertThat(summary.getNextDueDate()).isEqualTo(nextDueDate);
+    }
+
+    private RentalSummary summary() {
+        // 요약은 update 문으로 바뀌므로 영속성 컨텍스트를 비우고 다시 읽는다
+        em.flush();
+        em.clear();
+        return rentalSummaryRepository.findById(USER_ID).get();
+    }
+}
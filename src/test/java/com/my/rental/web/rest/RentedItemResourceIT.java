@@ -1,11 +1,15 @@
 package com.my.rental.web.rest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.my.rental.RentalApp;
+import com.my.rental.domain.Rental;
 import com.my.rental.domain.RentedItem;
+import com.my.rental.domain.enumeration.RentalStatus;
 import com.my.rental.repository.RentedItemRepository;
 import com.my.rental.service.RentedItemService;
 import com.my.rental.web.rest.dto.RentedItemDTO;
 import com.my.rental.web.rest.mapper.RentedItemMapper;
+import com.my.rental.web.rest.util.NdjsonWriter;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -22,6 +26,7 @@ import java.time.ZoneId;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -55,6 +60,9 @@ public class RentedItemResourceIT {
     @Autowired
     private EntityManager em;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Autowired
     private MockMvc restRentedItemMockMvc;
 
@@ -149,6 +157,32 @@ public class RentedItemResourceIT {
             .andExpect(jsonPath("$.[*].dueDate").value(hasItem(DEFAULT_DUE_DATE.toString())));
     }
 
+    @Test
+    @Transactional
+    public void getAllRentedItemsAfterId() throws Exception {
+        // Initialize the database
+        RentedItem first = rentedItemRepository.saveAndFlush(createEntity(em));
+        RentedItem second = rentedItemRepository.saveAndFlush(createUpdatedEntity(em));
+
+        // Get the rented items after the first one, one at a time
+        restRentedItemMockMvc.perform(get("/api/rented-items?after={id}&size=1", first.getId() - 1))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(first.getId().intValue()))
+            .andExpect(jsonPath("$.[0].bookId").value(DEFAULT_BOOK_ID.intValue()))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().string("Link", containsString("after=" + first.getId() + "&size=1>; rel=\"next\"")));
+
+        restRentedItemMockMvc.perform(get("/api/rented-items?after={id}&size=1&count=true", first.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(second.getId().intValue()))
+            .andExpect(jsonPath("$.[0].dueDate").value(UPDATED_DUE_DATE.toString()))
+            .andExpect(header().string("X-Total-Count", String.valueOf(rentedItemRepository.count())));
+
+        restRentedItemMockMvc.perform(get("/api/rented-items?after=0&size=0"))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     public void getRentedItem() throws Exception {
@@ -164,6 +198,35 @@ public class RentedItemResourceIT {
             .andExpect(jsonPath("$.rentedDate").value(DEFAULT_RENTED_DATE.toString()))
             .andExpect(jsonPath("$.dueDate").value(DEFAULT_DUE_DATE.toString()));
     }
+    @Test
+    @Transactional
+    public void exportRentedItems() throws Exception {
+        // Initialize the database
+        Rental rental = Rental.createRental(1L);
+        em.persist(rental);
+        RentedItem due = createUpdatedEntity(em);
+        due.setRental(rental);
+        rentedItemRepository.saveAndFlush(due);
+        rentedItemRepository.saveAndFlush(rentedItem);
+
+        // Export the items due from today of rentals in good standing, one JSON document per line
+        String content = restRentedItemMockMvc.perform(get("/api/rented-items/export?dueFrom={dueFrom}&rentalStatus={status}",
+            UPDATED_DUE_DATE, RentalStatus.OK))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(NdjsonWriter.APPLICATION_NDJSON_VALUE))
+            .andReturn().getResponse().getContentAsString();
+
+        List<RentedItemDTO> exported = objectMapper.readerFor(RentedItemDTO.class).<RentedItemDTO>readValues(content).readAll();
+        assertThat(content.split("\n")).hasSameSizeAs(exported);
+        assertThat(exported).extracting(RentedItemDTO::getId).contains(due.getId()).doesNotContain(rentedItem.getId()).isSorted();
+        assertThat(exported).allSatisfy(item -> assertThat(item.getDueDate()).isAfterOrEqualTo(UPDATED_DUE_DATE));
+
+        // Without the rental status the items of no rental are exported as well
+        restRentedItemMockMvc.perform(get("/api/rented-items/export"))
+            .andExpect(status().isOk())
+            .andExpect(content().string(containsString("\"id\":" + rentedItem.getId() + ",")));
+    }
+
     @Test
     @Transactional
     public void getNonExistingRentedItem() throws Exception {
@@ -0,0 +1,103 @@
+package com.my.rental.web.rest;
+
+import com.my.rental.RentalApp;
+import com.my.rental.domain.Rental;
+import com.my.rental.domain.ReturnedItem;
+import com.my.rental.repository.RentalRepository;
+import com.my.rental.repository.ReturnedItemRepository;
+import com.my.rental.service.RentalService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for the {@link ReturnedItemResource} REST controller.
+ */
+@SpringBootTest(classes = RentalApp.class)
+@AutoConfigureMockMvc
+@WithMockUser
+public class ReturnedItemResourceIT {
+
+    private static final Long USER_ID = 1000L;
+    private static final Long OTHER_USER_ID = 2000L;
+
+    private static final LocalDate RETURNED_DATE = LocalDate.ofEpochDay(0L);
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private ReturnedItemRepository returnedItemRepository;
+
+    @Autowired
+    private RentalService rentalService;
+
+    @Autowired
+    private MockMvc restReturnedItemMockMvc;
+
+    private Rental rental;
+
+    @BeforeEach
+    public void initTest() {
+        rental = Rental.createRental(USER_ID);
+    }
+
+    @Test
+    @Transactional
+    public void getReturnedItemsOfUser() throws Exception {
+        // Initialize the database
+        rentalRepository.saveAndFlush(rental);
+        for (long bookId = 1; bookId <= 3; bookId++) {
+            returnedItemRepository.saveAndFlush(ReturnedItem.createReturnedItem(bookId, "title-" + bookId, RETURNED_DATE).rental(rental));
+        }
+
+        // Get the first page of the history
+        restReturnedItemMockMvc.perform(get("/api/rentals/{userId}/returned-items?page=0&size=2&sort=bookId,asc", USER_ID))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string("X-Total-Count", "3"))
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$.[0].bookId").value(1))
+            .andExpect(jsonPath("$.[0].bookTitle").value("title-1"))
+            .andExpect(jsonPath("$.[0].returnedDate").value(RETURNED_DATE.toString()))
+            .andExpect(jsonPath("$.[0].rentalId").value(rental.getId().intValue()))
+            .andExpect(jsonPath("$.[1].bookId").value(2));
+    }
+
+    @Test
+    @Transactional
+    public void getReturnedItemsOfUserWithoutRental() throws Exception {
+        restReturnedItemMockMvc.perform(get("/api/rentals/{userId}/returned-items", OTHER_USER_ID))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "0"))
+            .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    @Transactional
+    public void returnOverdueBookAppendsHistory() throws Exception {
+        // Initialize the database
+        rentalRepository.saveAndFlush(rental.rentBook(10L, "title-10").overdueBook(10L));
+
+        rentalService.returnOverdueBook(USER_ID, 10L);
+
+        restReturnedItemMockMvc.perform(get("/api/rentals/{userId}/returned-items", USER_ID))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$.[0].bookId").value(10))
+            .andExpect(jsonPath("$.[0].bookTitle").value("title-10"));
+    }
+}
@@ -34,6 +34,24 @@ public class ExceptionTranslatorIT {
             .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_CONCURRENCY_FAILURE));
     }
 
+    @Test
+    public void testRentalItemNotFound() throws Exception {
+        mockMvc.perform(get("/api/exception-translator-test/rental-item-not-found"))
+            .andExpect(status().isNotFound())
+            .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+            .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_RENTAL_ITEM_NOT_FOUND))
+            .andExpect(jsonPath("$.detail").value("Rented item not found for book 1"));
+    }
+
+    @Test
+    public void testRentalCommandRejected() throws Exception {
+        mockMvc.perform(get("/api/exception-translator-test/rental-command-rejected"))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+            .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_RENTAL_COMMAND_REJECTED))
+            .andExpect(jsonPath("$.detail").value("Too many pending rental commands for user 1"));
+    }
+
     @Test
     public void testMethodArgumentNotValid() throws Exception {
          mockMvc.perform(post("/api/exception-translator-test/method-argument").content("{}").contentType(MediaType.APPLICATION_JSON))
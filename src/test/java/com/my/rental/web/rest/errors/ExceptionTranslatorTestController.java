@@ -1,5 +1,7 @@
 package com.my.rental.web.rest.errors;
 
+import com.my.rental.domain.exception.RentalItemNotFoundException;
+import com.my.rental.service.RentalCommandRejectedException;
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
@@ -18,6 +20,16 @@ public class ExceptionTranslatorTestController {
         throw new ConcurrencyFailureException("test concurrency failure");
     }
 
+    @GetMapping("/rental-item-not-found")
+    public void rentalItemNotFound() {
+        throw new RentalItemNotFoundException("Rented item", 1L);
+    }
+
+    @GetMapping("/rental-command-rejected")
+    public void rentalCommandRejected() {
+        throw new RentalCommandRejectedException(1L);
+    }
+
     @PostMapping("/method-argument")
     public void methodArgument(@Valid @RequestBody TestDTO testDTO) {
     }